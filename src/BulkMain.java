@@ -0,0 +1,208 @@
+import solver.BitmaskEngine;
+import solver.SearchMode;
+import utils.Constants;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+// Headless bulk mode: java BulkMain <puzzles.txt> [results.txt]
+// Reads one 81-character puzzle per line ('.' or '0' for blanks), solves each one and checks that
+// its solution is unique. Writes one line per input line, "<STATUS> <81-digit solution>" or just
+// "<STATUS>" (EMPTY for a blank line), to the results file or stdout, so output line N always
+// answers input line N. Progress goes to stderr. The file is streamed
+// through fixed buffers in batches, so memory stays flat however long the input is.
+public class BulkMain {
+    private static final int SIZE = Constants.BOARD_SIZE;
+    private static final int CELLS = SIZE * SIZE;
+    private static final int BATCH_SIZE = 8192;
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    private static final long REPORT_INTERVAL_NANOS = 1_000_000_000L;
+
+    private static final byte PENDING = 0;
+    private static final byte UNIQUE = 1;
+    private static final byte MULTIPLE = 2;
+    private static final byte UNSOLVABLE = 3;
+    private static final byte INVALID = 4;
+    private static final byte MALFORMED = 5;
+    private static final byte EMPTY = 6;
+    private static final byte[][] STATUS_NAMES = {
+        null,
+        "UNIQUE".getBytes(StandardCharsets.US_ASCII),
+        "MULTIPLE".getBytes(StandardCharsets.US_ASCII),
+        "UNSOLVABLE".getBytes(StandardCharsets.US_ASCII),
+        "INVALID".getBytes(StandardCharsets.US_ASCII),
+        "MALFORMED".getBytes(StandardCharsets.US_ASCII),
+        "EMPTY".getBytes(StandardCharsets.US_ASCII)
+    };
+    private static final int MAX_RECORD_LENGTH = 10 + 1 + CELLS + 1;
+
+    private final ThreadLocal<BitmaskEngine> engines = ThreadLocal.withInitial(() -> new BitmaskEngine(SearchMode.PROPAGATING));
+    private final ThreadLocal<int[][]> grids = ThreadLocal.withInitial(() -> new int[SIZE][SIZE]);
+    // One slot per puzzle in the batch: parsed givens in, solution digits and status out.
+    private final byte[] puzzles = new byte[BATCH_SIZE * CELLS];
+    private final byte[] solutions = new byte[BATCH_SIZE * CELLS];
+    private final byte[] statuses = new byte[BATCH_SIZE];
+    private final long[] statusCounts = new long[STATUS_NAMES.length];
+    private final ByteBuffer output = ByteBuffer.allocateDirect(BATCH_SIZE * MAX_RECORD_LENGTH);
+    private final WritableByteChannel out;
+    private int batchCount;
+    private int column;
+    private boolean malformed;
+    private long processed;
+    private long startNanos;
+    private long lastReportNanos;
+
+    private BulkMain(WritableByteChannel out) {
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: java BulkMain <puzzles.txt> [results.txt]");
+            System.exit(2);
+        }
+        try (FileChannel in = FileChannel.open(Path.of(args[0]), StandardOpenOption.READ)) {
+            if (args.length == 2) {
+                try (FileChannel out = FileChannel.open(Path.of(args[1]), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    new BulkMain(out).run(in);
+                }
+            } else {
+                // Not closed: closing the channel would close the process's stdout
+                new BulkMain(Channels.newChannel(System.out)).run(in);
+                System.out.flush();
+            }
+        }
+    }
+
+    private void run(FileChannel in) throws IOException {
+        startNanos = System.nanoTime();
+        lastReportNanos = startNanos;
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        while (in.read(buffer) != -1) {
+            int length = buffer.position();
+            for (int i = 0; i < length; i++) {
+                accept(bytes[i]);
+            }
+            buffer.clear();
+        }
+        if (column > 0 || malformed) {
+            endLine();
+        }
+        flushBatch();
+        report(true);
+    }
+
+    private void accept(byte b) throws IOException {
+        if (b == '\n') {
+            endLine();
+            return;
+        }
+        if (b == '\r') {
+            return;
+        }
+        if (column < CELLS) {
+            if (b >= '1' && b <= '9') {
+                puzzles[batchCount * CELLS + column] = (byte) (b - '0');
+            } else if (b == '.' || b == '0') {
+                puzzles[batchCount * CELLS + column] = 0;
+            } else {
+                malformed = true;
+            }
+        } else {
+            malformed = true; // Line is too long
+        }
+        column++;
+    }
+
+    private void endLine() throws IOException {
+        if (column == 0 && !malformed) {
+            statuses[batchCount] = EMPTY; // Still gets a record, keeping output lines aligned with input
+        } else {
+            statuses[batchCount] = (column != CELLS || malformed) ? MALFORMED : PENDING;
+        }
+        batchCount++;
+        column = 0;
+        malformed = false;
+        if (batchCount == BATCH_SIZE) {
+            flushBatch();
+        }
+    }
+
+    private void flushBatch() throws IOException {
+        if (batchCount == 0) {
+            return;
+        }
+        IntStream.range(0, batchCount).parallel().forEach(this::solveSlot);
+        output.clear();
+        for (int slot = 0; slot < batchCount; slot++) {
+            byte status = statuses[slot];
+            statusCounts[status]++;
+            output.put(STATUS_NAMES[status]);
+            if (status == UNIQUE || status == MULTIPLE) {
+                output.put((byte) ' ');
+                for (int i = 0; i < CELLS; i++) {
+                    output.put((byte) ('0' + solutions[slot * CELLS + i]));
+                }
+            }
+            output.put((byte) '\n');
+        }
+        output.flip();
+        while (output.hasRemaining()) {
+            out.write(output);
+        }
+        processed += batchCount;
+        batchCount = 0;
+        report(false);
+    }
+
+    // A single counting search with limit 2 proves uniqueness and yields the first solution.
+    private void solveSlot(int slot) {
+        if (statuses[slot] == MALFORMED || statuses[slot] == EMPTY) {
+            return;
+        }
+        int[][] grid = grids.get();
+        int base = slot * CELLS;
+        for (int i = 0; i < CELLS; i++) {
+            grid[i / SIZE][i % SIZE] = puzzles[base + i];
+        }
+        BitmaskEngine engine = engines.get();
+        if (!engine.load(grid)) {
+            statuses[slot] = INVALID;
+            return;
+        }
+        int count = engine.countSolutions(2);
+        if (count == 0) {
+            statuses[slot] = UNSOLVABLE;
+            return;
+        }
+        statuses[slot] = count == 1 ? UNIQUE : MULTIPLE;
+        engine.copyFirstSolutionTo(grid);
+        for (int i = 0; i < CELLS; i++) {
+            solutions[base + i] = (byte) grid[i / SIZE][i % SIZE];
+        }
+    }
+
+    private void report(boolean last) {
+        long now = System.nanoTime();
+        if (!last && now - lastReportNanos < REPORT_INTERVAL_NANOS) {
+            return;
+        }
+        lastReportNanos = now;
+        double seconds = Math.max(now - startNanos, 1) / 1e9;
+        System.err.printf("%,d puzzles in %.1fs, %,.0f puzzles/s%n", processed, seconds, processed / seconds);
+        if (last) {
+            System.err.printf("unique %,d, multiple %,d, unsolvable %,d, invalid %,d, malformed %,d, empty %,d%n",
+                    statusCounts[UNIQUE], statusCounts[MULTIPLE], statusCounts[UNSOLVABLE],
+                    statusCounts[INVALID], statusCounts[MALFORMED], statusCounts[EMPTY]);
+        }
+    }
+}
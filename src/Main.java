@@ -1,6 +1,8 @@
 import javax.swing.SwingUtilities;
 
 import controller.SudokuGameController;
+import solver.SearchMode;
+import solver.SolutionCache;
 import solver.SudokuSolver;
 import validator.StandardSudokuValidator;
 import validator.SudokuValidator;
@@ -11,7 +13,7 @@ public class Main {
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             SudokuValidator validator = new StandardSudokuValidator();
-            SudokuSolver solver = new SudokuSolver(validator);
+            SudokuSolver solver = new SudokuSolver(validator, SearchMode.ORDERED, null, new SolutionCache());
             GameView gameView = new GameView();
             WelcomeScreen welcomeScreen = new WelcomeScreen();
             new SudokuGameController(validator, solver, gameView, welcomeScreen).start();
@@ -1,25 +1,35 @@
 package controller;
 
-import generator.ClassicPuzzleGenerator;
-import generator.IcePuzzleGenerator;
-import generator.PuzzleGenerator;
+import generator.GeneratedPuzzle;
+import generator.PuzzlePool;
 import mode.ClassicMode;
 import mode.IceMode;
+import model.ConflictIndex;
+import model.PersistentBoard;
 import model.Puzzle;
 import model.Solution;
+import model.Topology;
+import solver.SolveResult;
 import solver.SudokuSolver;
 import utils.Constants;
 import utils.DifficultyLevel;
+import utils.GameModeType;
 import validator.SudokuValidator;
 import view.*;
 
 import javax.swing.*;
 import java.awt.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class SudokuGameController implements GameStartListener, GameActionListener, TimerListener {
-    private final Map<String, PuzzleGenerator> puzzleGenerators;
+    private static final Duration SOLVE_TIMEOUT = Duration.ofSeconds(10);
+    // Pre-generated puzzles per mode and difficulty, so starting a game does not generate on the EDT.
+    private final PuzzlePool puzzlePool;
     private final Map<String, mode.GameMode> gameModes;
     private final SudokuValidator validator;
     private final SudokuSolver solver;
@@ -27,6 +37,13 @@ public class SudokuGameController implements GameStartListener, GameActionListen
     private final WelcomeScreen welcomeScreen;
     private Puzzle puzzle;
     private Solution solution;
+    // Seed of the current puzzle; with the mode, difficulty and PuzzleGenerator.VERSION it regenerates the game.
+    private long puzzleSeed;
+    private ConflictIndex conflictIndex;
+    // Every board state of the current game, oldest first. The last version is the game state:
+    // moves advance it and puzzle's mutable board only mirrors it for views, modes and the
+    // conflict index. Versions share unchanged rows, so each move costs one row.
+    private List<PersistentBoard> moveHistory;
     private int score;
     private int timeElapsed;
     private int hintCount;
@@ -36,9 +53,7 @@ public class SudokuGameController implements GameStartListener, GameActionListen
         this.solver = solver;
         this.gameView = gameView;
         this.welcomeScreen = welcomeScreen;
-        puzzleGenerators = new HashMap<>();
-        puzzleGenerators.put(Constants.CLASSIC_MODE, new ClassicPuzzleGenerator(validator));
-        puzzleGenerators.put(Constants.ICE_MODE, new IcePuzzleGenerator(validator));
+        puzzlePool = new PuzzlePool(validator);
         gameModes = new HashMap<>();
         gameModes.put(Constants.CLASSIC_MODE, new ClassicMode());
         gameModes.put(Constants.ICE_MODE, new IceMode());
@@ -47,6 +62,7 @@ public class SudokuGameController implements GameStartListener, GameActionListen
 
     public void start() {
         try {
+            puzzlePool.start(); // Fills while the player is on the welcome screen
             welcomeScreen.setVisible(true);
         } catch (Exception e) {
             JOptionPane.showMessageDialog(null, "Failed to start game: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
@@ -89,7 +105,7 @@ public class SudokuGameController implements GameStartListener, GameActionListen
         }
 
         if (value.isEmpty()) {
-            puzzle.getBoard().setCell(row, col, 0); //
+            setBoardCell(row, col, 0); //
             gameView.updateCell(row, col, "", Color.BLACK, getDefaultBackground(row, col), true); //
             if (gameView.getMode().equals(Constants.ICE_MODE)) { //
                 checkAdjacentFrozenCells(row, col); //
@@ -98,9 +114,13 @@ public class SudokuGameController implements GameStartListener, GameActionListen
         }
         int num = Integer.parseInt(value); //
         mode.GameMode gameMode = gameModes.get(gameView.getMode()); //
-        puzzle.getBoard().setCell(row, col, num); //
+        // The board rejects values outside 1..size, so pasted input like "12" must not reach setCell //
+        boolean inRange = num >= 1 && num <= puzzle.getBoard().getSize(); //
+        if (inRange) { //
+            setBoardCell(row, col, num); //
+        }
 
-        if (gameMode.isValidMove(puzzle, solution, validator, row, col, num)) { //
+        if (inRange && gameMode.isValidMove(puzzle, solution, validator, row, col, num)) { //
             Color background = getDefaultBackground(row, col); //
             Color textColor = Color.BLACK; // Default to black //
 
@@ -139,24 +159,40 @@ public class SudokuGameController implements GameStartListener, GameActionListen
             gameView.showStatus("Invalid move! Try again."); //
             gameView.updateCell(row, col, String.valueOf(num), Color.RED, Constants.ERROR_CELL_COLOR, true); //
 
-            puzzle.getBoard().setCell(row, col, 0); //
+            setBoardCell(row, col, 0); //
+        }
+    }
+
+    // The only write path for the board: advances the current version, mirrors the cell into the
+    // mutable board, and repaints only the cells whose conflict state flipped.
+    private void setBoardCell(int row, int col, int value) {
+        PersistentBoard current = getCurrentBoard(); //
+        PersistentBoard next = current.setCell(row, col, value); //
+        if (next == current) { //
+            return; //
+        }
+        moveHistory.add(next); //
+        puzzle.getBoard().setCell(row, col, next.getCell(row, col)); //
+        conflictIndex.cellChanged(row, col); //
+        int size = puzzle.getBoard().getSize(); //
+        for (int i = 0; i < conflictIndex.getChangedCount(); i++) { //
+            int cell = conflictIndex.getChangedCell(i); //
+            gameView.markConflict(cell / size, cell % size, conflictIndex.isConflicting(cell / size, cell % size)); //
         }
     }
 
     private void checkAdjacentFrozenCells(int row, int col) {
         if (!gameView.getMode().equals(Constants.ICE_MODE)) return; //
 
-        int[][] directions = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
         IceMode iceMode = (IceMode) gameModes.get(Constants.ICE_MODE); //
+        Topology topology = puzzle.getBoard().getTopology(); //
+        int cell = topology.cell(row, col); //
 
-        for (int[] dir : directions) { //
-            int newRow = row + dir[0]; //
-            int newCol = col + dir[1]; //
-            if (newRow >= 0 && newRow < Constants.BOARD_SIZE && //
-                    newCol >= 0 && newCol < Constants.BOARD_SIZE) { //
-                if (puzzle.isFrozen(newRow, newCol)) { //
-                    iceMode.updateFrozenCellState(puzzle, solution, newRow, newCol, gameView.cells[newRow][newCol]); //
-                }
+        for (int i = 0; i < topology.neighborCount(cell); i++) { //
+            int newRow = topology.rowOf(topology.neighbor(cell, i)); //
+            int newCol = topology.colOf(topology.neighbor(cell, i)); //
+            if (puzzle.isFrozen(newRow, newCol)) { //
+                iceMode.updateFrozenCellState(puzzle, solution, newRow, newCol, gameView.cells[newRow][newCol]); //
             }
         }
     }
@@ -165,23 +201,46 @@ public class SudokuGameController implements GameStartListener, GameActionListen
     public void onSolve() {
         if (gameView.confirmSolve()) { //
             gameView.stopTimer(); //
-            int[][] solvedGrid = solver.solve(puzzle.getBoard().getGrid(), gameView.getMode().equals(Constants.ICE_MODE)); //
-            for (int row = 0; row < Constants.BOARD_SIZE; row++) { //
-                for (int col = 0; col < Constants.BOARD_SIZE; col++) { //
-                    if (!puzzle.isFixed(row, col)) { //
-                        gameView.updateCell(row, col, String.valueOf(solvedGrid[row][col]), Constants.SOLVE_CELL_COLOR, //
-                                getDefaultBackground(row, col), false); //
+            Puzzle target = puzzle; //
+            gameView.showStatus("Solving..."); //
+            // Solve off the EDT with a hard time cap, then apply the result back on the EDT.
+            // The latest history version is immutable, so the solver reads it without a copy.
+            solver.solveAsync(getCurrentBoard(), gameView.getMode().equals(Constants.ICE_MODE), SOLVE_TIMEOUT, null) //
+                    .whenComplete((result, error) -> SwingUtilities.invokeLater(() -> showSolveResult(target, result, error))); //
+        }
+    }
+
+    private void showSolveResult(Puzzle target, SolveResult result, Throwable error) {
+        if (target != puzzle) { //
+            return; // A new game was started while solving
+        }
+        if (error != null) { //
+            gameView.showStatus("Solver failed: " + error.getMessage()); //
+            return; //
+        }
+        switch (result.getStatus()) { //
+            case SOLVED -> { //
+                int[][] solvedGrid = result.getGrid(); //
+                for (int row = 0; row < puzzle.getBoard().getSize(); row++) { //
+                    for (int col = 0; col < puzzle.getBoard().getSize(); col++) { //
+                        if (!puzzle.isFixed(row, col)) { //
+                            gameView.updateCell(row, col, String.valueOf(solvedGrid[row][col]), Constants.SOLVE_CELL_COLOR, //
+                                    getDefaultBackground(row, col), false); //
+                        }
                     }
                 }
+                gameView.showStatus("Puzzle solved automatically!"); //
             }
-            gameView.showStatus("Puzzle solved automatically!"); //
+            case TIMED_OUT -> gameView.showStatus("Solver gave up after " + SOLVE_TIMEOUT.toSeconds() + " seconds."); //
+            case CANCELLED -> gameView.showStatus("Solving was cancelled."); //
+            default -> gameView.showStatus("This puzzle has no solution."); //
         }
     }
 
     @Override
     public void onHint() {
         HintSystem.HintGenerator hintGenerator = new HintSystem.HintGenerator(); //
-        HintSystem.Hint hint = hintGenerator.getBestHint(puzzle.getBoard().getGrid(), solution.getBoard().getGrid()); //
+        HintSystem.Hint hint = hintGenerator.getBestHint(puzzle.getBoard(), solution.getBoard()); // Live views, no grid copies //
         if (hint == null) { //
             gameView.showStatus("No hints available!"); //
             return; //
@@ -192,8 +251,7 @@ public class SudokuGameController implements GameStartListener, GameActionListen
 
     @Override
     public void onCheck() {
-        mode.GameMode gameMode = gameModes.get(gameView.getMode()); //
-        int errors = gameMode.checkSolution(puzzle, solution); //
+        int errors = conflictIndex.getMismatchCount(); // Kept up to date per move, no rescan
         if (errors == 0) { //
             gameView.showStatus("No errors found! Keep going!"); //
         } else {
@@ -211,14 +269,21 @@ public class SudokuGameController implements GameStartListener, GameActionListen
 
     private void startNewGame(String mode, String difficulty) {
         try {
-            PuzzleGenerator generator = puzzleGenerators.get(mode); //
             mode.GameMode gameMode = gameModes.get(mode); //
-            if (generator == null || gameMode == null) { //
+            if (gameMode == null) { //
                 throw new IllegalArgumentException("Invalid mode: " + mode); //
             }
             System.out.println("Initializing game Mode: " + mode + " - Difficulty: " + difficulty); //
-            this.puzzle = generator.generatePuzzle(DifficultyLevel.valueOf(difficulty)); //
-            this.solution = generator.getSolution(); //
+            GeneratedPuzzle generated = puzzlePool.take(GameModeType.valueOf(mode), DifficultyLevel.valueOf(difficulty)); // Queued puzzle, generated here only on a miss //
+            this.puzzle = generated.getPuzzle(); //
+            this.solution = generated.getSolution(); //
+            this.puzzleSeed = generated.getSeed(); //
+            if (!generated.matches(DifficultyLevel.valueOf(difficulty))) { // Only when every draw missed, see PuzzlePool.take //
+                System.out.println("No " + difficulty + " puzzle found in time, playing one rated " + generated.getRating().getLevel() + " (" + generated.getRating() + ")"); //
+            }
+            this.conflictIndex = new ConflictIndex(puzzle.getBoard(), solution); //
+            this.moveHistory = new ArrayList<>(); //
+            moveHistory.add(PersistentBoard.of(puzzle.getBoard())); //
             this.score = 1000; //
             this.timeElapsed = 0; //
             this.hintCount = 0; //
@@ -233,7 +298,8 @@ public class SudokuGameController implements GameStartListener, GameActionListen
     }
 
     private Color getDefaultBackground(int row, int col) {
-        return ((row / Constants.SUBGRID_SIZE + col / Constants.SUBGRID_SIZE) % 2 == 0) //
+        int subgridSize = puzzle.getBoard().getSubgridSize(); //
+        return ((row / subgridSize + col / subgridSize) % 2 == 0) //
                 ? Constants.ALTERNATE_CELL_COLOR : Constants.DEFAULT_CELL_COLOR; //
     }
 
@@ -243,12 +309,28 @@ public class SudokuGameController implements GameStartListener, GameActionListen
         return String.format("%02d:%02d", minutes, secs); //
     }
 
+    public long getPuzzleSeed() {
+        return puzzleSeed;
+    }
+
+    public PuzzlePool getPuzzlePool() {
+        return puzzlePool;
+    }
+
+    public PersistentBoard getCurrentBoard() {
+        return moveHistory.get(moveHistory.size() - 1); //
+    }
+
+    public List<PersistentBoard> getMoveHistory() {
+        return Collections.unmodifiableList(moveHistory); //
+    }
+
     public void highlightCell(int row, int col, boolean highlight) {
         gameView.highlightCell(row, col, highlight); //
     }
 
     public void applyCellValue(int row, int col, int value) {
-        puzzle.getBoard().setCell(row, col, value); //
+        setBoardCell(row, col, value); //
         puzzle.setFixed(row, col, true); //
         gameView.applyCellValue(row, col, value); //
     }
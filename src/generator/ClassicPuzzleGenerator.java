@@ -1,39 +1,79 @@
 package generator;
 
 import model.Board;
+import model.ConstraintBoard;
 import model.Puzzle;
 import model.Solution;
+import solver.BitmaskEngine;
+import solver.DifficultyRater;
+import solver.DifficultyRating;
+import solver.SearchMode;
+import solver.SolverMetrics;
+import solver.SolverStats;
+import solver.UniquenessOracle;
 import utils.Constants;
 import utils.DifficultyLevel;
-import utils.Point;
+import utils.IntShuffle;
 import validator.SudokuValidator;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class ClassicPuzzleGenerator implements PuzzleGenerator {
+    private static final long LARGE_BOARD_NODE_BUDGET = 1_000;
+    // Complete grids tried per 9x9 puzzle before giving up on the requested level.
+    private static final int MAX_RATING_ATTEMPTS = 32;
     private final Random random = new Random();
     private final SudokuValidator validator;
+    private final SolverMetrics metrics;
+    // Search state and shuffle buffers are per thread, so one generator can serve parallel streams.
+    private final ThreadLocal<Workspace> workspaces;
     private Solution solution;
 
     public ClassicPuzzleGenerator(SudokuValidator validator) {
+        // The solution count does not depend on search order, so the pruned search is the safe default here.
+        this(validator, SearchMode.PROPAGATING);
+    }
+
+    public ClassicPuzzleGenerator(SudokuValidator validator, SearchMode searchMode) {
+        this(validator, searchMode, null);
+    }
+
+    // When metrics is non-null every uniqueness check is also recorded into its histograms.
+    public ClassicPuzzleGenerator(SudokuValidator validator, SearchMode searchMode, SolverMetrics metrics) {
         this.validator = validator;
+        this.metrics = metrics;
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(searchMode));
     }
 
     @Override
-    public Puzzle generatePuzzle(DifficultyLevel difficulty) {
-        Board solutionBoard = generateCompleteSudoku();
-        this.solution = new Solution(solutionBoard);
-        Board puzzleBoard = createPuzzleFromSolution(solutionBoard, difficulty.getCellsToFill());
-        boolean[][] fixedCells = new boolean[Constants.BOARD_SIZE][Constants.BOARD_SIZE];
-        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
-            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
-                fixedCells[row][col] = puzzleBoard.getCell(row, col) != 0;
+    public Puzzle generatePuzzle(DifficultyLevel difficulty, int boardSize) {
+        GeneratedPuzzle generated = generate(difficulty, boardSize, random);
+        this.solution = generated.getSolution();
+        return generated.getPuzzle();
+    }
+
+    @Override
+    public GeneratedPuzzle generate(DifficultyLevel difficulty, int boardSize, RandomGenerator random) {
+        Workspace workspace = workspaces.get();
+        workspace.reset(boardSize);
+        if (boardSize != Constants.BOARD_SIZE) {
+            Board solutionBoard = generateCompleteSudoku(boardSize, random, workspace);
+            Board puzzleBoard = createPuzzleFromSolution(solutionBoard, difficulty.getCellsToFill(boardSize), random, workspace);
+            // Every clue left is fixed
+            return new GeneratedPuzzle(new Puzzle(puzzleBoard, puzzleBoard.getFilledCells(), null), new Solution(solutionBoard));
+        }
+        // A 9x9 level is the hardest technique the puzzle needs, so the puzzle is carved towards
+        // that technique rather than a clue count. A grid that cannot reach it is replaced, up to
+        // MAX_RATING_ATTEMPTS grids; after that the last puzzle is returned as it is, and
+        // GeneratedPuzzle.matches() shows the miss.
+        GeneratedPuzzle generated = null;
+        for (int attempt = 0; attempt < MAX_RATING_ATTEMPTS; attempt++) {
+            generated = createRatedPuzzle(generateCompleteSudoku(boardSize, random, workspace), difficulty, random, workspace);
+            if (generated.matches(difficulty)) {
+                break;
             }
         }
-        return new Puzzle(puzzleBoard, fixedCells, null);
+        return generated;
     }
 
     @Override
@@ -41,22 +81,59 @@ public class ClassicPuzzleGenerator implements PuzzleGenerator {
         return solution;
     }
 
-    private Board generateCompleteSudoku() {
-        Board board = new Board();
-        solveSudoku(board);
+    // Summed uniqueness-check counters of the last puzzle generated on the calling thread.
+    public SolverStats getLastGenerationStats() {
+        return workspaces.get().stats;
+    }
+
+    private Board generateCompleteSudoku(int boardSize, RandomGenerator random, Workspace workspace) {
+        // Constraint masks turn each validator check in the random fill into a single AND.
+        Board board = new ConstraintBoard(boardSize);
+        if (boardSize == Constants.BOARD_SIZE) {
+            solveSudoku(board, random, workspace.digitOrders);
+        } else {
+            fillLargeBoard(board, random, workspace.digitOrders[0]);
+        }
         return board;
     }
 
-    private boolean solveSudoku(Board board) {
-        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
-            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
+    // Random cell-by-cell backtracking does not finish on 16x16/25x25 boards. The diagonal boxes
+    // share no row, column or box, so they are filled with random permutations and the
+    // propagating engine completes the rest; a random relabelling of digits adds variety.
+    private void fillLargeBoard(Board board, RandomGenerator random, int[] numbers) {
+        int size = board.getSize();
+        int subgridSize = board.getSubgridSize();
+        int[][] grid = new int[size][size];
+        for (int box = 0; box < subgridSize; box++) {
+            IntShuffle.shuffleRange(numbers, size, 1, random);
+            for (int i = 0; i < size; i++) {
+                grid[box * subgridSize + i / subgridSize][box * subgridSize + i % subgridSize] = numbers[i];
+            }
+        }
+        BitmaskEngine engine = new BitmaskEngine(SearchMode.PROPAGATING);
+        if (!engine.load(grid) || !engine.solve()) {
+            throw new IllegalStateException("Could not complete a " + size + "x" + size + " board");
+        }
+        engine.copyTo(grid);
+        IntShuffle.shuffleRange(numbers, size, 1, random);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                board.setCell(row, col, numbers[grid[row][col] - 1]);
+            }
+        }
+    }
+
+    private boolean solveSudoku(Board board, RandomGenerator random, int[][] digitOrders) {
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
                 if (board.isEmpty(row, col)) {
-                    List<Integer> numbers = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9);
-                    Collections.shuffle(numbers, random);
+                    // Cells fill in order, so the cell index is also the recursion depth
+                    int[] numbers = digitOrders[row * board.getSize() + col];
+                    IntShuffle.shuffleRange(numbers, board.getSize(), 1, random);
                     for (int num : numbers) {
                         if (validator.isValid(board, row, col, num)) {
                             board.setCell(row, col, num);
-                            if (solveSudoku(board)) {
+                            if (solveSudoku(board, random, digitOrders)) {
                                 return true;
                             }
                             board.setCell(row, col, 0);
@@ -69,62 +146,92 @@ public class ClassicPuzzleGenerator implements PuzzleGenerator {
         return true;
     }
 
-    private Board createPuzzleFromSolution(Board solution, int cellsToFill) {
-        Board puzzle = new Board(solution.getGrid());
-        int cellsToRemove = Constants.BOARD_SIZE * Constants.BOARD_SIZE - cellsToFill;
-        List<Point> positions = new ArrayList<>();
-        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
-            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
-                positions.add(new Point(row, col));
-            }
-        }
-        Collections.shuffle(positions, random);
-
-        for (int i = 0; i < cellsToRemove && i < positions.size(); i++) {
-            Point pos = positions.get(i);
-            int value = puzzle.getCell(pos.x, pos.y);
-            puzzle.setCell(pos.x, pos.y, 0);
-            if (!hasUniqueSolution(puzzle)) {
-                puzzle.setCell(pos.x, pos.y, value); // Revert if multiple solutions
+    private Board createPuzzleFromSolution(Board solution, int cellsToFill, RandomGenerator random, Workspace workspace) {
+        Board puzzle = new ConstraintBoard(solution);
+        int size = puzzle.getSize();
+        int cellsToRemove = size * size - cellsToFill;
+        int[] cellOrder = workspace.cellOrder;
+        UniquenessOracle uniquenessOracle = workspace.uniquenessOracle;
+        IntShuffle.shuffleRange(cellOrder, size * size, 0, random);
+
+        // On 16x16/25x25 boards a few removals can make the search explode; an unproven check keeps the clue.
+        uniquenessOracle.setNodeBudget(size == Constants.BOARD_SIZE ? Long.MAX_VALUE : LARGE_BOARD_NODE_BUDGET);
+        uniquenessOracle.begin(puzzle);
+        for (int i = 0; i < cellsToRemove && i < size * size; i++) {
+            int row = cellOrder[i] / size;
+            int col = cellOrder[i] % size;
+            if (uniquenessOracle.tryRemove(row, col)) {
+                puzzle.setCell(row, col, 0);
             }
+            recordStats(workspace);
         }
         return puzzle;
     }
 
-    private boolean hasUniqueSolution(Board board) {
-        int[][] grid = board.getGrid();
-        int solutions = countSolutions(grid, 0, 0);
-        return solutions == 1;
-    }
+    // Like createPuzzleFromSolution, but the puzzle is rated after every removal and a removal that
+    // would need a technique beyond the requested level is undone. Once the level's clue count is
+    // reached it keeps removing until the puzzle needs the level's technique or no cell is left to try.
+    private GeneratedPuzzle createRatedPuzzle(Board solution, DifficultyLevel difficulty, RandomGenerator random, Workspace workspace) {
+        Board puzzle = new ConstraintBoard(solution);
+        int size = puzzle.getSize();
+        int cellCount = size * size;
+        int cellsToTry = cellCount - difficulty.getCellsToFill(size);
+        int[] cellOrder = workspace.cellOrder;
+        UniquenessOracle uniquenessOracle = workspace.uniquenessOracle;
+        IntShuffle.shuffleRange(cellOrder, cellCount, 0, random);
 
-    private int countSolutions(int[][] grid, int row, int col) {
-        if (row >= Constants.BOARD_SIZE) {
-            row = 0;
-            col++;
-            if (col >= Constants.BOARD_SIZE) {
-                return 1;
+        uniquenessOracle.setNodeBudget(Long.MAX_VALUE);
+        uniquenessOracle.begin(puzzle);
+        DifficultyRating rating = workspace.rater.rate(puzzle);
+        for (int i = 0; i < cellCount && (i < cellsToTry || rating.getLevel() != difficulty); i++) {
+            int row = cellOrder[i] / size;
+            int col = cellOrder[i] % size;
+            boolean removed = uniquenessOracle.tryRemove(row, col);
+            recordStats(workspace);
+            if (!removed) {
+                continue;
+            }
+            puzzle.setCell(row, col, 0);
+            DifficultyRating removedRating = workspace.rater.rate(puzzle);
+            if (removedRating.getLevel().compareTo(difficulty) > 0) {
+                uniquenessOracle.undoRemove();
+                puzzle.setCell(row, col, solution.getCell(row, col));
+            } else {
+                rating = removedRating;
             }
         }
+        // Every clue left is fixed
+        return new GeneratedPuzzle(new Puzzle(puzzle, puzzle.getFilledCells(), null), new Solution(solution), rating);
+    }
 
-        if (!isEmpty(grid, row, col)) {
-            return countSolutions(grid, row + 1, col);
+    private void recordStats(Workspace workspace) {
+        SolverStats stats = workspace.uniquenessOracle.getLastStats();
+        workspace.stats = workspace.stats.plus(stats);
+        if (metrics != null) {
+            metrics.record(stats);
         }
+    }
 
-        int count = 0;
-        for (int num = 1; num <= 9; num++) {
-            if (validator.isValid(new Board(grid), row, col, num)) {
-                grid[row][col] = num;
-                count += countSolutions(grid, row + 1, col);
-                grid[row][col] = 0;
-                if (count > 1) {
-                    return count; // Early exit if multiple solutions found
-                }
-            }
+    // One thread's uniqueness oracle, difficulty rater and shuffle buffers: the removal order of cells, and one digit
+    // order per recursion depth of the random fill. Buffers are regrown only when the board size changes.
+    private static class Workspace {
+        final UniquenessOracle uniquenessOracle;
+        final DifficultyRater rater = new DifficultyRater();
+        int[] cellOrder = new int[0];
+        int[][] digitOrders = new int[0][];
+        SolverStats stats = SolverStats.EMPTY;
+
+        Workspace(SearchMode searchMode) {
+            this.uniquenessOracle = new UniquenessOracle(searchMode);
         }
-        return count;
-    }
 
-    private boolean isEmpty(int[][] grid, int row, int col) {
-        return grid[row][col] == 0;
+        void reset(int boardSize) {
+            int cellCount = boardSize * boardSize;
+            if (cellOrder.length != cellCount) {
+                cellOrder = new int[cellCount];
+                digitOrders = new int[cellCount][boardSize];
+            }
+            stats = SolverStats.EMPTY;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package generator;
+
+import model.Puzzle;
+import model.Solution;
+import solver.DifficultyRating;
+import utils.DifficultyLevel;
+
+// A generated puzzle together with the solution it was carved from. Puzzles from
+// generateSeeded() also carry their seed, which together with the mode, difficulty, board size and
+// PuzzleGenerator.VERSION is enough to generate them again. Rated puzzles carry their rating, and
+// matches() tells a caller when the generator ran out of attempts before hitting the requested level.
+public class GeneratedPuzzle {
+    private final Puzzle puzzle;
+    private final Solution solution;
+    private final long seed;
+    private final boolean seeded;
+    private final DifficultyRating rating;
+
+    public GeneratedPuzzle(Puzzle puzzle, Solution solution) {
+        this(puzzle, solution, null);
+    }
+
+    public GeneratedPuzzle(Puzzle puzzle, Solution solution, DifficultyRating rating) {
+        this(puzzle, solution, rating, 0, false);
+    }
+
+    private GeneratedPuzzle(Puzzle puzzle, Solution solution, DifficultyRating rating, long seed, boolean seeded) {
+        this.puzzle = puzzle;
+        this.solution = solution;
+        this.rating = rating;
+        this.seed = seed;
+        this.seeded = seeded;
+    }
+
+    public GeneratedPuzzle withSeed(long seed) {
+        return new GeneratedPuzzle(puzzle, solution, rating, seed, true);
+    }
+
+    public Puzzle getPuzzle() { return puzzle; }
+    public Solution getSolution() { return solution; }
+    public boolean isSeeded() { return seeded; }
+    // Null when the puzzle was not rated (boards other than 9x9).
+    public DifficultyRating getRating() { return rating; }
+
+    // Whether the puzzle plays at the given level. Unrated puzzles only have their clue count to go by, so they always match.
+    public boolean matches(DifficultyLevel difficulty) {
+        return rating == null || rating.getLevel() == difficulty;
+    }
+
+    public long getSeed() {
+        if (!seeded) {
+            throw new IllegalStateException("Puzzle was not generated from a seed");
+        }
+        return seed;
+    }
+}
@@ -1,20 +1,21 @@
 package generator;
 
 import model.Board;
+import model.CellMask;
 import model.Puzzle;
 import model.Solution;
-import utils.Constants;
+import model.Topology;
 import utils.DifficultyLevel;
-import utils.Point;
+import utils.IntShuffle;
 import validator.SudokuValidator;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class IcePuzzleGenerator implements PuzzleGenerator {
     private final Random random = new Random();
     private final ClassicPuzzleGenerator classicGenerator;
+    // Per-thread buffer of frozen-cell candidates, so one generator can serve parallel streams.
+    private final ThreadLocal<int[]> candidateBuffers = ThreadLocal.withInitial(() -> new int[0]);
     private Solution solution;
 
     public IcePuzzleGenerator(SudokuValidator validator) {
@@ -22,48 +23,44 @@ public class IcePuzzleGenerator implements PuzzleGenerator {
     }
 
     @Override
-    public Puzzle generatePuzzle(DifficultyLevel difficulty) {
-        Puzzle classicPuzzle = classicGenerator.generatePuzzle(difficulty);
-        this.solution = classicGenerator.getSolution();
-        Board puzzleBoard = classicPuzzle.getBoard();
-        boolean[][] fixedCells = new boolean[Constants.BOARD_SIZE][Constants.BOARD_SIZE];
+    public Puzzle generatePuzzle(DifficultyLevel difficulty, int boardSize) {
+        GeneratedPuzzle generated = generate(difficulty, boardSize, random);
+        this.solution = generated.getSolution();
+        return generated.getPuzzle();
+    }
 
-        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
-            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
-                fixedCells[row][col] = puzzleBoard.getCell(row, col) != 0;
-            }
+    @Override
+    public GeneratedPuzzle generate(DifficultyLevel difficulty, int boardSize, RandomGenerator random) {
+        GeneratedPuzzle classic = classicGenerator.generate(difficulty, boardSize, random);
+        Board puzzleBoard = classic.getPuzzle().getBoard();
+        CellMask fixedCells = puzzleBoard.getFilledCells();
+        CellMask frozenCells = new CellMask(boardSize * boardSize);
+        int cellsToFreeze = (int) ((boardSize * boardSize - difficulty.getCellsToFill(boardSize)) * 0.2);
+        int[] candidateBuffer = candidateBuffers.get();
+        if (candidateBuffer.length < boardSize * boardSize) {
+            candidateBuffer = new int[boardSize * boardSize];
+            candidateBuffers.set(candidateBuffer);
         }
-        boolean[][] frozenCells = new boolean[Constants.BOARD_SIZE][Constants.BOARD_SIZE];
-        int cellsToFreeze = (int) ((Constants.BOARD_SIZE * Constants.BOARD_SIZE - difficulty.getCellsToFill()) * 0.2);
-        List<Point> candidateFrozenCells = new ArrayList<>();
-        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
-            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
-
-                if (puzzleBoard.isEmpty(row, col) &&
-                        hasAdjacentEmptyFillableCellInSubgrid4Dir(puzzleBoard, fixedCells, row, col)) { // ONLY this condition remains
-                    candidateFrozenCells.add(new Point(row, col));
-                }
+        int candidateCount = 0;
+        CellMask emptyCells = fixedCells.copy().not();
+        for (int cell = emptyCells.nextSetBit(0); cell >= 0; cell = emptyCells.nextSetBit(cell + 1)) {
+            if (hasAdjacentEmptyFillableCellInSubgrid4Dir(puzzleBoard, fixedCells, cell)) { // ONLY this condition remains
+                candidateBuffer[candidateCount++] = cell;
             }
         }
-        Collections.shuffle(candidateFrozenCells, random);
-        for (int i = 0; i < Math.min(cellsToFreeze, candidateFrozenCells.size()); i++) {
-            Point p = candidateFrozenCells.get(i);
-            frozenCells[p.x][p.y] = true;
+        IntShuffle.shuffle(candidateBuffer, candidateCount, random);
+        for (int i = 0; i < Math.min(cellsToFreeze, candidateCount); i++) {
+            frozenCells.set(candidateBuffer[i]);
         }
-        return new Puzzle(puzzleBoard, fixedCells, frozenCells);
+        return new GeneratedPuzzle(new Puzzle(puzzleBoard, fixedCells, frozenCells), classic.getSolution(), classic.getRating());
     }
 
-    private boolean hasAdjacentEmptyFillableCellInSubgrid4Dir(Board board, boolean[][] fixedCells, int row, int col) {
-        int[][] directions = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}}; // Top, bottom, left, right
-        for (int[] dir : directions) {
-            int newRow = row + dir[0];
-            int newCol = col + dir[1];
-
-            if (newRow >= 0 && newRow < Constants.BOARD_SIZE &&
-                    newCol >= 0 && newCol < Constants.BOARD_SIZE) {
-                if (board.isEmpty(newRow, newCol) && !fixedCells[newRow][newCol]) {
-                    return true;
-                }
+    private boolean hasAdjacentEmptyFillableCellInSubgrid4Dir(Board board, CellMask fixedCells, int cell) {
+        Topology topology = board.getTopology();
+        for (int i = 0; i < topology.neighborCount(cell); i++) { // Top, bottom, left, right
+            int neighbor = topology.neighbor(cell, i);
+            if (board.getCell(neighbor) == 0 && !fixedCells.get(neighbor)) {
+                return true;
             }
         }
         return false;
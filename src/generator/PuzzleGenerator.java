@@ -2,9 +2,50 @@ package generator;
 
 import model.Puzzle;
 import model.Solution;
+import utils.Constants;
 import utils.DifficultyLevel;
 
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 public interface PuzzleGenerator {
-    Puzzle generatePuzzle(DifficultyLevel difficulty);
+    // Bump whenever a change makes any seed produce a different puzzle, solution or frozen layout,
+    // so stored (version, seed) pairs are never regenerated into a different game.
+    int VERSION = 4;
+
+    // Generates with the generator's own random source and keeps the solution for getSolution();
+    // not safe to share across threads. Prefer generate(), which returns both together.
+    Puzzle generatePuzzle(DifficultyLevel difficulty, int boardSize);
     Solution getSolution();
-}
\ No newline at end of file
+
+    // Stateless: all randomness comes from random, so implementations may be called from any
+    // number of threads at once as long as each passes its own random source.
+    GeneratedPuzzle generate(DifficultyLevel difficulty, int boardSize, RandomGenerator random);
+
+    // Deterministic: the same seed, mode, difficulty, size and VERSION always give the same puzzle,
+    // so a game can be stored as its seed. The seed drives a SplittableRandom, whose output
+    // sequence is fixed by its specification.
+    default GeneratedPuzzle generateSeeded(long seed, DifficultyLevel difficulty, int boardSize) {
+        return generate(difficulty, boardSize, new SplittableRandom(seed)).withSeed(seed);
+    }
+
+    default GeneratedPuzzle generateSeeded(long seed, DifficultyLevel difficulty) {
+        return generateSeeded(seed, difficulty, Constants.BOARD_SIZE);
+    }
+
+    default Puzzle generatePuzzle(DifficultyLevel difficulty) {
+        return generatePuzzle(difficulty, Constants.BOARD_SIZE);
+    }
+
+    // Endless lazy stream of 9x9 puzzles; bound it with limit(). Every split of a parallel stream
+    // draws from its own SplittableRandom, so workers share nothing but the generator.
+    default Stream<GeneratedPuzzle> generate(DifficultyLevel difficulty) {
+        return generate(difficulty, Constants.BOARD_SIZE);
+    }
+
+    default Stream<GeneratedPuzzle> generate(DifficultyLevel difficulty, int boardSize) {
+        return StreamSupport.stream(new PuzzleSpliterator(this, difficulty, boardSize, new SplittableRandom()), false);
+    }
+}
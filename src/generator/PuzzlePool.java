@@ -0,0 +1,163 @@
+package generator;
+
+import solver.SolverMetrics;
+import utils.Constants;
+import utils.DifficultyLevel;
+import utils.GameModeType;
+import validator.SudokuValidator;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Ready-made 9x9 puzzles, one bounded queue per (mode, difficulty). Background threads top each
+// queue up to the watermark, so take() is normally a queue poll; when a queue runs dry the
+// puzzle is generated on the calling thread instead. Generation goes through the stateless
+// generate() API, so all threads share one generator per mode. A puzzle that missed its level
+// (GeneratedPuzzle.matches()) is never queued.
+public class PuzzlePool implements AutoCloseable {
+    public static final int DEFAULT_WATERMARK = 3;
+    // Generations take() makes on a queue miss before handing out a puzzle that missed its level.
+    private static final int MAX_SYNC_DRAWS = 2;
+
+    private final int watermark;
+    private final Slot[] slots;
+    private final ExecutorService refillExecutor;
+    private final Map<GameModeType, PuzzleGenerator> generators = new EnumMap<>(GameModeType.class);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final SolverMetrics.Histogram refillMicros = new SolverMetrics.Histogram();
+
+    public PuzzlePool(SudokuValidator validator) {
+        this(validator, DEFAULT_WATERMARK, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    public PuzzlePool(SudokuValidator validator, int watermark, int threads) {
+        if (watermark < 1 || threads < 1) {
+            throw new IllegalArgumentException("Watermark and thread count must be positive: " + watermark + ", " + threads);
+        }
+        this.watermark = watermark;
+        this.slots = new Slot[GameModeType.values().length * DifficultyLevel.values().length];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot(GameModeType.values()[i / DifficultyLevel.values().length],
+                    DifficultyLevel.values()[i % DifficultyLevel.values().length], watermark);
+        }
+        generators.put(GameModeType.CLASSIC, new ClassicPuzzleGenerator(validator));
+        generators.put(GameModeType.ICE, new IcePuzzleGenerator(validator));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.refillExecutor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "puzzle-pool-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true); // Never keeps the game from exiting
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    // Starts filling every queue up to the watermark.
+    public void start() {
+        for (Slot slot : slots) {
+            scheduleRefill(slot);
+        }
+    }
+
+    // A ready puzzle when one is queued, otherwise one generated now. Either way the queue is topped up again.
+    public GeneratedPuzzle take(GameModeType mode, DifficultyLevel difficulty) {
+        Slot slot = slotFor(mode, difficulty);
+        GeneratedPuzzle ready = slot.queue.poll();
+        if (ready != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            ready = generate(mode, difficulty);
+            for (int draw = 1; draw < MAX_SYNC_DRAWS && !ready.matches(difficulty); draw++) {
+                rejected.increment();
+                ready = generate(mode, difficulty);
+            }
+        }
+        scheduleRefill(slot);
+        return ready;
+    }
+
+    public int getAvailable(GameModeType mode, DifficultyLevel difficulty) {
+        return slotFor(mode, difficulty).queue.size();
+    }
+
+    public int getWatermark() { return watermark; }
+    public long getHitCount() { return hits.sum(); }
+    public long getMissCount() { return misses.sum(); }
+    // Generated puzzles dropped because they missed their level.
+    public long getRejectedCount() { return rejected.sum(); }
+
+    public double getHitRate() {
+        long total = getHitCount() + getMissCount();
+        return total == 0 ? 0 : (double) getHitCount() / total;
+    }
+
+    // Time each background generation took, in microseconds.
+    public SolverMetrics.Histogram getRefillLatencyMicros() { return refillMicros; }
+
+    @Override
+    public void close() {
+        refillExecutor.shutdownNow();
+    }
+
+    private void scheduleRefill(Slot slot) {
+        // Queued plus in-flight puzzles never exceed the watermark, so no slot floods the executor.
+        while (true) {
+            int pending = slot.pending.get();
+            if (refillExecutor.isShutdown() || slot.queue.size() + pending >= watermark) {
+                return;
+            }
+            if (slot.pending.compareAndSet(pending, pending + 1)) {
+                refillExecutor.execute(() -> refill(slot));
+            }
+        }
+    }
+
+    private void refill(Slot slot) {
+        try {
+            long start = System.nanoTime();
+            GeneratedPuzzle generated = generate(slot.mode, slot.difficulty);
+            refillMicros.record((System.nanoTime() - start) / 1_000);
+            if (generated.matches(slot.difficulty)) {
+                slot.queue.offer(generated);
+            } else {
+                rejected.increment(); // The next take() schedules another refill
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Puzzle pool refill failed for " + slot.mode + " " + slot.difficulty + ": " + e);
+        } finally {
+            slot.pending.decrementAndGet();
+        }
+    }
+
+    private GeneratedPuzzle generate(GameModeType mode, DifficultyLevel difficulty) {
+        // Seeded, so every game handed out can be stored and replayed as a single long
+        return generators.get(mode).generateSeeded(ThreadLocalRandom.current().nextLong(), difficulty, Constants.BOARD_SIZE);
+    }
+
+    private Slot slotFor(GameModeType mode, DifficultyLevel difficulty) {
+        return slots[mode.ordinal() * DifficultyLevel.values().length + difficulty.ordinal()];
+    }
+
+    private static class Slot {
+        final GameModeType mode;
+        final DifficultyLevel difficulty;
+        final BlockingQueue<GeneratedPuzzle> queue;
+        // Refills submitted but not yet queued.
+        final AtomicInteger pending = new AtomicInteger();
+
+        Slot(GameModeType mode, DifficultyLevel difficulty, int capacity) {
+            this.mode = mode;
+            this.difficulty = difficulty;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package generator;
+
+import utils.DifficultyLevel;
+
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+// Unbounded, unordered source behind PuzzleGenerator.generate(difficulty). Splitting hands the new
+// half a random source split off this one, so parallel workers never contend on a shared Random.
+class PuzzleSpliterator implements Spliterator<GeneratedPuzzle> {
+    private final PuzzleGenerator generator;
+    private final DifficultyLevel difficulty;
+    private final int boardSize;
+    private final SplittableRandom random;
+    // Halved on every split like Stream.generate's, so the framework's split depth stays bounded.
+    private long estimate;
+
+    PuzzleSpliterator(PuzzleGenerator generator, DifficultyLevel difficulty, int boardSize, SplittableRandom random) {
+        this(generator, difficulty, boardSize, random, Long.MAX_VALUE);
+    }
+
+    private PuzzleSpliterator(PuzzleGenerator generator, DifficultyLevel difficulty, int boardSize,
+                              SplittableRandom random, long estimate) {
+        this.generator = generator;
+        this.difficulty = difficulty;
+        this.boardSize = boardSize;
+        this.random = random;
+        this.estimate = estimate;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super GeneratedPuzzle> action) {
+        action.accept(generator.generate(difficulty, boardSize, random));
+        return true;
+    }
+
+    @Override
+    public Spliterator<GeneratedPuzzle> trySplit() {
+        if (estimate == 0) {
+            return null;
+        }
+        estimate >>>= 1;
+        return new PuzzleSpliterator(generator, difficulty, boardSize, random.split(), estimate);
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        return IMMUTABLE | NONNULL;
+    }
+}
@@ -1,14 +1,12 @@
 package mode;
 
+import model.CellMask;
 import model.Puzzle;
 import model.Solution;
 import utils.Constants;
-import utils.Point;
 import validator.SudokuValidator;
 import javax.swing.*;
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 public class ClassicMode implements GameMode {
@@ -28,13 +26,10 @@ public class ClassicMode implements GameMode {
 
     @Override
     public boolean isValidMove(Puzzle puzzle, Solution solution, SudokuValidator validator, int row, int col, int value) {
-        if (value < 1 || value > 9) {
+        if (value < 1 || value > puzzle.getBoard().getSize()) {
             return false; // Explicit range check
         }
-        int originalValue = puzzle.getBoard().getCell(row, col);
-        puzzle.getBoard().setCell(row, col, 0);
-        boolean isValid = validator.isValid(puzzle.getBoard(), row, col, value);
-        puzzle.getBoard().setCell(row, col, originalValue);
+        boolean isValid = validator.canPlace(puzzle.getBoard(), row, col, value); // Peers only, the board is not touched
         // Note: This checks local validity (row, column, subgrid).
         // It does not guarantee the move aligns with the unique solution.
         return isValid;
@@ -42,39 +37,28 @@ public class ClassicMode implements GameMode {
 
     @Override
     public boolean isPuzzleComplete(Puzzle puzzle, SudokuValidator validator) {
-        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
-            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
-                if (puzzle.getBoard().isEmpty(row, col)) {
-                    return false;
-                }
-            }
-        }
-        return validator.isValidSudoku(puzzle.getBoard());
+        // The board tracks its filled cells, so no scan is needed for the "full" check
+        return puzzle.getBoard().isFull() && validator.isValidSudoku(puzzle.getBoard());
     }
 
     @Override
-    public Point getHintCell(Puzzle puzzle, Random random) {
-        List<Point> emptyCells = new ArrayList<>();
-        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
-            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
-                if (!puzzle.isFixed(row, col) && puzzle.getBoard().isEmpty(row, col)) {
-                    emptyCells.add(new Point(row, col));
-                }
-            }
+    public int getHintCell(Puzzle puzzle, Random random) {
+        CellMask emptyCells = puzzle.getEmptyUnfixedCells();
+        int count = emptyCells.cardinality();
+        if (count == 0) {
+            return -1;
         }
-        return emptyCells.isEmpty() ? null : emptyCells.get(random.nextInt(emptyCells.size()));
+        return emptyCells.nthSetBit(random.nextInt(count));
     }
 
     @Override
     public int checkSolution(Puzzle puzzle, Solution solution) {
         int errors = 0;
-        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
-            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
-                if (!puzzle.isFixed(row, col) && !puzzle.getBoard().isEmpty(row, col)) {
-                    if (puzzle.getBoard().getCell(row, col) != solution.getCell(row, col)) {
-                        errors++;
-                    }
-                }
+        CellMask userCells = puzzle.getFilledUnfixedCells();
+        int size = puzzle.getBoard().getSize();
+        for (int cell = userCells.nextSetBit(0); cell >= 0; cell = userCells.nextSetBit(cell + 1)) {
+            if (puzzle.getBoard().getCell(cell) != solution.getCell(cell / size, cell % size)) {
+                errors++;
             }
         }
         return errors;
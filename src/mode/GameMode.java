@@ -2,7 +2,6 @@ package mode;
 
 import model.Puzzle;
 import model.Solution;
-import utils.Point;
 import validator.SudokuValidator;
 
 import javax.swing.*;
@@ -12,6 +11,7 @@ public interface GameMode {
     void renderCell(JTextField cell, int row, int col, Puzzle puzzle, Solution solution);
     boolean isValidMove(Puzzle puzzle, Solution solution, SudokuValidator validator, int row, int col, int value);
     boolean isPuzzleComplete(Puzzle puzzle, SudokuValidator validator);
-    Point getHintCell(Puzzle puzzle, Random random);
+    // Cell index (row * size + col) of a random empty, unfixed cell, or -1 when there is none.
+    int getHintCell(Puzzle puzzle, Random random);
     int checkSolution(Puzzle puzzle, Solution solution);
 }
\ No newline at end of file
@@ -2,15 +2,14 @@
 
 package mode;
 
+import model.CellMask;
 import model.Puzzle;
 import model.Solution;
+import model.Topology;
 import utils.Constants;
-import utils.Point;
 import validator.SudokuValidator;
 import javax.swing.*;
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 public class IceMode implements GameMode {
@@ -36,7 +35,7 @@ public class IceMode implements GameMode {
                 // Not a fixed cell and not frozen, so it's a regular editable empty cell
                 cell.setEditable(true);
                 // Set default background based on subgrid for unfrozen, editable cells
-                cell.setBackground(((row / Constants.SUBGRID_SIZE + col / Constants.SUBGRID_SIZE) % 2 == 0)
+                cell.setBackground(((row / puzzle.getBoard().getSubgridSize() + col / puzzle.getBoard().getSubgridSize()) % 2 == 0)
                         ? Constants.ALTERNATE_CELL_COLOR : Constants.DEFAULT_CELL_COLOR);
                 cell.setForeground(Color.BLACK);
                 cell.setFont(new Font("Arial", Font.PLAIN, 16));
@@ -46,15 +45,10 @@ public class IceMode implements GameMode {
 
     @Override
     public boolean isValidMove(Puzzle puzzle, Solution solution, SudokuValidator validator, int row, int col, int value) {
-        if (value < 1 || value > 9) {
+        if (value < 1 || value > puzzle.getBoard().getSize()) {
             return false; // Explicit range check
         }
-        // Save original value to restore after validation check
-        int originalValue = puzzle.getBoard().getCell(row, col);
-        puzzle.getBoard().setCell(row, col, 0); // Temporarily clear current cell for validation
-        boolean isValid = validator.isValid(puzzle.getBoard(), row, col, value);
-        puzzle.getBoard().setCell(row, col, originalValue); // Restore original value
-
+        boolean isValid = validator.canPlace(puzzle.getBoard(), row, col, value); // Peers only, the board is not touched
         // Note: This checks local validity (row, column, subgrid).
         // It does not guarantee the move aligns with the unique solution.
         return isValid;
@@ -62,41 +56,28 @@ public class IceMode implements GameMode {
 
     @Override
     public boolean isPuzzleComplete(Puzzle puzzle, SudokuValidator validator) {
-        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
-            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
-                if (puzzle.getBoard().isEmpty(row, col)) {
-                    return false; // If any cell is empty, puzzle is not complete
-                }
-            }
-        }
-        return validator.isValidSudoku(puzzle.getBoard()); // Check if the filled board is a valid Sudoku
+        // The board tracks its filled cells, so no scan is needed for the "full" check
+        return puzzle.getBoard().isFull() && validator.isValidSudoku(puzzle.getBoard());
     }
 
     @Override
-    public Point getHintCell(Puzzle puzzle, Random random) {
-        List<Point> emptyCells = new ArrayList<>();
-        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
-            for ( int col = 0; col < Constants.BOARD_SIZE; col++) {
-                // Only provide hints for empty, non-fixed cells
-                if (!puzzle.isFixed(row, col) && puzzle.getBoard().isEmpty(row, col)) {
-                    emptyCells.add(new Point(row, col));
-                }
-            }
+    public int getHintCell(Puzzle puzzle, Random random) {
+        CellMask emptyCells = puzzle.getEmptyUnfixedCells(); // Only empty, non-fixed cells get hints
+        int count = emptyCells.cardinality();
+        if (count == 0) {
+            return -1;
         }
-        return emptyCells.isEmpty() ? null : emptyCells.get(random.nextInt(emptyCells.size()));
+        return emptyCells.nthSetBit(random.nextInt(count));
     }
 
     @Override
     public int checkSolution(Puzzle puzzle, Solution solution) {
         int errors = 0;
-        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
-            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
-                // Only check user-entered cells (not fixed, not empty)
-                if (!puzzle.isFixed(row, col) && !puzzle.getBoard().isEmpty(row, col)) {
-                    if (puzzle.getBoard().getCell(row, col) != solution.getCell(row, col)) {
-                        errors++;
-                    }
-                }
+        CellMask userCells = puzzle.getFilledUnfixedCells(); // Only user-entered cells (not fixed, not empty)
+        int size = puzzle.getBoard().getSize();
+        for (int cell = userCells.nextSetBit(0); cell >= 0; cell = userCells.nextSetBit(cell + 1)) {
+            if (puzzle.getBoard().getCell(cell) != solution.getCell(cell / size, cell % size)) {
+                errors++;
             }
         }
         return errors;
@@ -105,22 +86,18 @@ public class IceMode implements GameMode {
     // MODIFIED: Removed the subgrid boundary check in hasAdjacentUserFilledCorrectCellInSubgrid4Dir.
     // This allows a valid adjacent move to unfreeze a cell even if it's outside the same 3x3 subgrid.
     private boolean hasAdjacentUserFilledCorrectCellInSubgrid4Dir(Puzzle puzzle, Solution solution, int row, int col) {
-        int[][] directions = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}}; // Top, bottom, left, right
-
-        for (int[] dir : directions) {
-            int newRow = row + dir[0];
-            int newCol = col + dir[1];
-
-            if (newRow >= 0 && newRow < Constants.BOARD_SIZE &&
-                    newCol >= 0 && newCol < Constants.BOARD_SIZE) {
+        Topology topology = puzzle.getBoard().getTopology();
+        int cell = topology.cell(row, col);
+        for (int i = 0; i < topology.neighborCount(cell); i++) { // Top, bottom, left, right
+            int neighbor = topology.neighbor(cell, i);
+            int newRow = topology.rowOf(neighbor);
+            int newCol = topology.colOf(neighbor);
 
-                // The previous check for (newRow, newCol) being within the same 3x3 subgrid has been removed.
-                // Now, any 4-directionally adjacent cell (within board limits) can unfreeze.
-                if (!puzzle.getBoard().isEmpty(newRow, newCol) && // Is the neighbor filled?
-                        !puzzle.isFixed(newRow, newCol) &&           // Is it a user-entered cell (not an initial fixed cell)?
-                        puzzle.getBoard().getCell(newRow, newCol) == solution.getCell(newRow, newCol)) { // Is the user-entered value correct?
-                    return true;
-                }
+            // Any 4-directionally adjacent cell (within board limits) can unfreeze, not only those in the same subgrid.
+            if (!puzzle.getBoard().isEmpty(newRow, newCol) && // Is the neighbor filled?
+                    !puzzle.isFixed(newRow, newCol) &&           // Is it a user-entered cell (not an initial fixed cell)?
+                    puzzle.getBoard().getCell(newRow, newCol) == solution.getCell(newRow, newCol)) { // Is the user-entered value correct?
+                return true;
             }
         }
         return false;
@@ -132,7 +109,7 @@ public class IceMode implements GameMode {
 
             if (shouldUnlock) {
                 puzzle.setFrozen(row, col, false); // This line is crucial for internal state
-                cell.setBackground(((row / Constants.SUBGRID_SIZE + col / Constants.SUBGRID_SIZE) % 2 == 0)
+                cell.setBackground(((row / puzzle.getBoard().getSubgridSize() + col / puzzle.getBoard().getSubgridSize()) % 2 == 0)
                         ? Constants.ALTERNATE_CELL_COLOR : Constants.DEFAULT_CELL_COLOR);
                 cell.setEditable(true);
                 cell.setForeground(Color.BLACK);
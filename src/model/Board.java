@@ -1,37 +1,123 @@
 package model;
 
-public class Board {
-    private static final int SIZE = 9;
-    private final int[][] grid;
+import utils.Constants;
+
+// Cells are stored row by row in one byte array (81 bytes for 9x9) rather than one int array per
+// row, which keeps boards small when many are held at once and makes copies a single clone.
+public class Board implements BoardView {
+    private final int size;
+    private final int subgridSize;
+    private final Topology topology;
+    private final byte[] cells;
+    private final CellMask filled;
 
     public Board() {
-        this.grid = new int[SIZE][SIZE];
+        this(Constants.BOARD_SIZE);
+    }
+
+    public Board(int size) {
+        this.size = size;
+        this.subgridSize = subgridSizeOf(size);
+        this.topology = Topology.of(size);
+        this.cells = new byte[size * size];
+        this.filled = new CellMask(size * size);
     }
 
     public Board(int[][] grid) {
-        this.grid = new int[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            this.grid[i] = grid[i].clone();
+        this(grid.length);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                cells[row * size + col] = checked(grid[row][col]);
+                filled.set(row * size + col, grid[row][col] != 0);
+            }
+        }
+    }
+
+    // Copies any board, including another view's live state, with a single array clone when possible.
+    public Board(BoardView board) {
+        this.size = board.getSize();
+        this.subgridSize = board.getSubgridSize();
+        this.topology = board.getTopology();
+        if (board instanceof Board other) {
+            this.cells = other.cells.clone();
+            this.filled = other.filled.copy();
+        } else {
+            this.cells = new byte[size * size];
+            this.filled = new CellMask(size * size);
+            for (int cell = 0; cell < cells.length; cell++) {
+                cells[cell] = (byte) board.getCell(cell);
+                filled.set(cell, cells[cell] != 0);
+            }
         }
     }
 
+    public static int subgridSizeOf(int size) {
+        for (int supported : Constants.SUPPORTED_BOARD_SIZES) {
+            if (supported == size) {
+                return (int) Math.round(Math.sqrt(size));
+            }
+        }
+        throw new IllegalArgumentException("Unsupported board size: " + size);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public int getSubgridSize() {
+        return subgridSize;
+    }
+
+    @Override
+    public Topology getTopology() {
+        return topology;
+    }
+
+    @Override
     public int getCell(int row, int col) {
-        return grid[row][col];
+        return cells[row * size + col];
+    }
+
+    @Override
+    public int getCell(int cell) {
+        return cells[cell];
     }
 
     public void setCell(int row, int col, int value) {
-        grid[row][col] = value;
+        cells[row * size + col] = checked(value);
+        filled.set(row * size + col, value != 0);
+    }
+
+    // A copy of the non-empty cells, kept up to date by setCell so no scan is needed.
+    public CellMask getFilledCells() {
+        return filled.copy();
+    }
+
+    public boolean isFull() {
+        return filled.isFull();
     }
 
     public int[][] getGrid() {
-        int[][] copy = new int[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            copy[i] = grid[i].clone();
+        int[][] copy = new int[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                copy[row][col] = cells[row * size + col];
+            }
         }
         return copy;
     }
 
+    @Override
     public boolean isEmpty(int row, int col) {
-        return grid[row][col] == 0;
+        return cells[row * size + col] == 0;
+    }
+
+    private byte checked(int value) {
+        if (value < 0 || value > size) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+        return (byte) value;
     }
-}
\ No newline at end of file
+}
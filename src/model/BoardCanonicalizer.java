@@ -0,0 +1,198 @@
+package model;
+
+import utils.Constants;
+
+// Maps a 9x9 board to one representative of its class under the validity-preserving symmetries:
+// digit relabelling, row swaps within a band, column swaps within a stack, band swaps, stack
+// swaps and transposition. The representative is the lexicographically smallest grid in the
+// class, read row by row with blanks as 0 and digits relabelled in order of first appearance.
+//
+// Search: for both orientations and all 1296 column orders, rows are placed one at a time,
+// keeping only the candidates whose relabelled image is the smallest, and every branch that
+// falls behind the best grid found so far is cut. An instance reuses its buffers and is not
+// thread-safe.
+public class BoardCanonicalizer {
+    private static final int SIZE = Constants.BOARD_SIZE;
+    private static final int BOX = 3;
+    private static final int[][] COLUMN_ORDERS = columnOrders();
+
+    private final int[][] source = new int[SIZE][SIZE];
+    private final int[][] transposed = new int[SIZE][SIZE];
+    private final int[][] best = new int[SIZE][SIZE];
+    private final int[][] image = new int[SIZE][SIZE];
+    private final int[] labels = new int[SIZE + 1];
+    private final int[] candidates = new int[SIZE * SIZE];
+    private int[][] grid;
+    private int[] columns;
+    private int bestRows;
+
+    public Board canonicalForm(Board board) {
+        return new Board(canonicalGrid(board));
+    }
+
+    // An 81-character key ('0' for blanks), equal for two boards exactly when they are equivalent.
+    public String canonicalKey(Board board) {
+        int[][] canonical = canonicalGrid(board);
+        char[] key = new char[SIZE * SIZE];
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                key[row * SIZE + col] = (char) ('0' + canonical[row][col]);
+            }
+        }
+        return new String(key);
+    }
+
+    public boolean areEquivalent(Board first, Board second) {
+        return canonicalKey(first).equals(canonicalKey(second));
+    }
+
+    private int[][] canonicalGrid(Board board) {
+        if (board.getSize() != SIZE) {
+            throw new IllegalArgumentException("Canonical form is only defined for 9x9 boards, got " + board.getSize());
+        }
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                source[row][col] = board.getCell(row, col);
+                transposed[col][row] = source[row][col];
+            }
+        }
+        bestRows = 0;
+        for (int[][] orientation : new int[][][]{source, transposed}) {
+            grid = orientation;
+            for (int[] order : COLUMN_ORDERS) {
+                columns = order;
+                placeRow(0, 0, -1, 1);
+            }
+        }
+        int[][] result = new int[SIZE][];
+        for (int row = 0; row < SIZE; row++) {
+            result[row] = best[row].clone();
+        }
+        return result;
+    }
+
+    // Places output row `step`. usedRows is a bit set of source rows already placed, band is the
+    // band being filled (-1 at the start of a new band) and nextLabel the next unused label.
+    // The rows placed so far always equal the first `step` rows of best.
+    private void placeRow(int step, int usedRows, int band, int nextLabel) {
+        if (step == SIZE) {
+            return;
+        }
+        // The row is compared against best from the start, so a candidate is dropped at the first
+        // cell that makes it worse; if none is at least as small as best the branch is cut.
+        int[] row = image[step];
+        boolean bounded = step < bestRows;
+        if (bounded) {
+            System.arraycopy(best[step], 0, row, 0, SIZE);
+        }
+        boolean better = false;
+        int count = 0;
+        int first = band < 0 ? 0 : band * BOX;
+        int last = band < 0 ? SIZE : first + BOX;
+        for (int source = first; source < last; source++) {
+            if ((usedRows >> source & 1) != 0) {
+                continue;
+            }
+            int cmp = compareImage(source, row, nextLabel, count == 0 && !bounded);
+            if (cmp < 0) {
+                better = true;
+                count = 0;
+            }
+            if (cmp <= 0) {
+                candidates[step * SIZE + count++] = source;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        if (!bounded || better) {
+            // Everything after this row in best belonged to a worse branch.
+            System.arraycopy(row, 0, best[step], 0, SIZE);
+            bestRows = step + 1;
+        }
+
+        for (int i = 0; i < count; i++) {
+            int source = candidates[step * SIZE + i];
+            int labelled = nextLabel;
+            for (int col = 0; col < SIZE; col++) {
+                int value = grid[source][columns[col]];
+                if (value != 0 && labels[value] == 0) {
+                    labels[value] = labelled++;
+                }
+            }
+            int nextBand = (step + 1) % BOX == 0 ? -1 : source / BOX;
+            placeRow(step + 1, usedRows | 1 << source, nextBand, labelled);
+            for (int col = 0; col < SIZE; col++) {
+                int value = grid[source][columns[col]];
+                if (value != 0 && labels[value] >= nextLabel) {
+                    labels[value] = 0;
+                }
+            }
+        }
+    }
+
+    // Compares the source row, after column reordering and relabelling, with row. Unseen digits
+    // take the next labels in order of appearance. When the image is smaller (or replace is set)
+    // it is written over row; comparison stops at the first cell where the image is larger.
+    private int compareImage(int source, int[] row, int nextLabel, boolean replace) {
+        int[] values = grid[source];
+        int labelled = nextLabel;
+        int cmp = replace ? -1 : 0;
+        int col = 0;
+        while (col < SIZE) {
+            int value = values[columns[col]];
+            int label = 0;
+            if (value != 0) {
+                if (labels[value] == 0) {
+                    labels[value] = labelled++;
+                }
+                label = labels[value];
+            }
+            col++;
+            if (cmp == 0) {
+                if (label > row[col - 1]) {
+                    cmp = 1;
+                    break;
+                }
+                if (label < row[col - 1]) {
+                    cmp = -1;
+                }
+            }
+            if (cmp < 0) {
+                row[col - 1] = label;
+            }
+        }
+        // Drop the provisional labels again.
+        for (int c = 0; c < col; c++) {
+            int value = values[columns[c]];
+            if (value != 0 && labels[value] >= nextLabel) {
+                labels[value] = 0;
+            }
+        }
+        return cmp;
+    }
+
+    // All 6^4 column orders that keep stacks intact: a stack order, then an order inside each stack.
+    private static int[][] columnOrders() {
+        int[][] perms = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+        int[][] orders = new int[1296][];
+        int next = 0;
+        for (int[] stacks : perms) {
+            for (int[] first : perms) {
+                for (int[] second : perms) {
+                    for (int[] third : perms) {
+                        int[][] inner = {first, second, third};
+                        int[] order = new int[SIZE];
+                        for (int s = 0; s < BOX; s++) {
+                            for (int c = 0; c < BOX; c++) {
+                                order[s * BOX + c] = stacks[s] * BOX + inner[s][c];
+                            }
+                        }
+                        orders[next++] = order;
+                    }
+                }
+            }
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,17 @@
+package model;
+
+// Read-only access to a board's cells. Board implements it, so the solver, hint system and
+// validator can read a live board directly instead of taking an int[][] copy.
+public interface BoardView {
+    int getSize();
+    int getSubgridSize();
+    Topology getTopology();
+    int getCell(int row, int col);
+
+    // Cell index as in Topology: row * size + col.
+    int getCell(int cell);
+
+    default boolean isEmpty(int row, int col) {
+        return getCell(row, col) == 0;
+    }
+}
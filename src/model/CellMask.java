@@ -0,0 +1,160 @@
+package model;
+
+import java.util.Arrays;
+
+// Fixed-size set of cell indices (numbered as in Topology) packed 64 to a long: two words for a
+// 9x9 board, ten for 25x25. Bulk operations work a word at a time and modify this mask in place,
+// returning it for chaining; copy() first to keep the original.
+public final class CellMask {
+    private final int cellCount;
+    private final long[] words;
+
+    public CellMask(int cellCount) {
+        this.cellCount = cellCount;
+        this.words = new long[(cellCount + 63) >>> 6];
+    }
+
+    private CellMask(int cellCount, long[] words) {
+        this.cellCount = cellCount;
+        this.words = words;
+    }
+
+    public static CellMask of(boolean[][] cells) {
+        int size = cells.length;
+        CellMask mask = new CellMask(size * size);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (cells[row][col]) {
+                    mask.set(row * size + col);
+                }
+            }
+        }
+        return mask;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public boolean get(int cell) {
+        return (words[cell >>> 6] & 1L << cell) != 0;
+    }
+
+    public void set(int cell) {
+        words[cell >>> 6] |= 1L << cell;
+    }
+
+    public void clear(int cell) {
+        words[cell >>> 6] &= ~(1L << cell);
+    }
+
+    public void set(int cell, boolean value) {
+        if (value) {
+            set(cell);
+        } else {
+            clear(cell);
+        }
+    }
+
+    public CellMask copy() {
+        return new CellMask(cellCount, words.clone());
+    }
+
+    public CellMask and(CellMask other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+        return this;
+    }
+
+    public CellMask or(CellMask other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+        return this;
+    }
+
+    public CellMask andNot(CellMask other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= ~other.words[i];
+        }
+        return this;
+    }
+
+    // Complement within the board's cells; bits past cellCount stay clear.
+    public CellMask not() {
+        for (int i = 0; i < words.length; i++) {
+            words[i] = ~words[i];
+        }
+        int tail = cellCount & 63;
+        if (tail != 0) {
+            words[words.length - 1] &= (1L << tail) - 1;
+        }
+        return this;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isFull() {
+        return cardinality() == cellCount;
+    }
+
+    // First set cell at or after from, or -1. Loop with nextSetBit(cell + 1) to visit every cell.
+    public int nextSetBit(int from) {
+        if (from >= cellCount) {
+            return -1;
+        }
+        int index = from >>> 6;
+        long word = words[index] & -1L << from;
+        while (true) {
+            if (word != 0) {
+                return (index << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    // The n-th set cell (0-based) in ascending order, or -1 if there are not that many.
+    public int nthSetBit(int n) {
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            int count = Long.bitCount(word);
+            if (n < count) {
+                for (; n > 0; n--) {
+                    word &= word - 1;
+                }
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+            n -= count;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CellMask mask && cellCount == mask.cellCount && Arrays.equals(words, mask.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * cellCount + Arrays.hashCode(words);
+    }
+}
@@ -0,0 +1,134 @@
+package model;
+
+import java.util.Arrays;
+
+// Live index of the active puzzle's problem cells: those whose digit also appears in a peer
+// (conflicts) and those whose digit differs from the solution (mismatches). cellChanged() only
+// rechecks the changed cell and the peers holding its old or new digit, and both sets answer
+// membership and size in O(1). Cells are numbered row * size + col as in Topology.
+public class ConflictIndex {
+    private final Board board;
+    private final Solution solution;
+    private final Topology topology;
+    private final int size;
+    private final int[] values;
+    // counts[unit * (size + 1) + value]: how often value occurs in the unit.
+    private final int[] counts;
+    private final CellSet conflicts;
+    private final CellSet mismatches;
+    private final CellSet changed;
+
+    public ConflictIndex(Board board, Solution solution) {
+        this.board = board;
+        this.solution = solution;
+        this.topology = board.getTopology();
+        this.size = board.getSize();
+        this.values = new int[topology.cellCount()];
+        this.counts = new int[topology.unitCount() * (size + 1)];
+        this.conflicts = new CellSet(topology.cellCount());
+        this.mismatches = new CellSet(topology.cellCount());
+        this.changed = new CellSet(topology.cellCount());
+        for (int cell = 0; cell < values.length; cell++) {
+            values[cell] = board.getCell(topology.rowOf(cell), topology.colOf(cell));
+            count(cell, values[cell], 1);
+        }
+        for (int cell = 0; cell < values.length; cell++) {
+            recheck(cell);
+        }
+        changed.clear();
+    }
+
+    // Call after every write to the board. Afterwards getChangedCount()/getChangedCell() list the
+    // cells whose conflict or mismatch state flipped, so the view only repaints those.
+    public void cellChanged(int row, int col) {
+        changed.clear();
+        int cell = topology.cell(row, col);
+        int oldValue = values[cell];
+        int newValue = board.getCell(row, col);
+        if (oldValue == newValue) {
+            return;
+        }
+        count(cell, oldValue, -1);
+        values[cell] = newValue;
+        count(cell, newValue, 1);
+        recheck(cell);
+        for (int i = 0; i < topology.peerCount(); i++) {
+            int peer = topology.peer(cell, i);
+            if (values[peer] != 0 && (values[peer] == oldValue || values[peer] == newValue)) {
+                recheck(peer);
+            }
+        }
+    }
+
+    public boolean isConflicting(int row, int col) { return conflicts.contains(topology.cell(row, col)); }
+    public boolean isMismatched(int row, int col) { return mismatches.contains(topology.cell(row, col)); }
+    public int getConflictCount() { return conflicts.size(); }
+    public int getMismatchCount() { return mismatches.size(); }
+    public int getConflictCell(int i) { return conflicts.get(i); }
+    public int getMismatchCell(int i) { return mismatches.get(i); }
+    public int getChangedCount() { return changed.size(); }
+    public int getChangedCell(int i) { return changed.get(i); }
+
+    private void count(int cell, int value, int delta) {
+        if (value < 1 || value > size) {
+            return;
+        }
+        counts[topology.rowUnit(cell) * (size + 1) + value] += delta;
+        counts[topology.colUnit(cell) * (size + 1) + value] += delta;
+        counts[topology.boxUnit(cell) * (size + 1) + value] += delta;
+    }
+
+    private void recheck(int cell) {
+        int value = values[cell];
+        boolean conflicting = value != 0 && (value < 1 || value > size
+                || counts[topology.rowUnit(cell) * (size + 1) + value] > 1
+                || counts[topology.colUnit(cell) * (size + 1) + value] > 1
+                || counts[topology.boxUnit(cell) * (size + 1) + value] > 1);
+        // Givens and applied hints always match, so this equals the non-fixed count checkSolution makes.
+        boolean mismatched = value != 0 && value != solution.getCell(topology.rowOf(cell), topology.colOf(cell));
+        if (conflicts.set(cell, conflicting) | mismatches.set(cell, mismatched)) {
+            changed.set(cell, true);
+        }
+    }
+
+    // Set of cell indices with O(1) add, remove and membership, and dense iteration.
+    private static final class CellSet {
+        private final int[] members;
+        private final int[] positions;
+        private int size;
+
+        CellSet(int capacity) {
+            members = new int[capacity];
+            positions = new int[capacity];
+            Arrays.fill(positions, -1);
+        }
+
+        boolean contains(int cell) { return positions[cell] >= 0; }
+        int size() { return size; }
+        int get(int i) { return members[i]; }
+
+        // Returns whether membership changed.
+        boolean set(int cell, boolean present) {
+            if (present == contains(cell)) {
+                return false;
+            }
+            if (present) {
+                positions[cell] = size;
+                members[size++] = cell;
+            } else {
+                int last = members[--size];
+                members[positions[cell]] = last;
+                positions[last] = positions[cell];
+                positions[cell] = -1;
+            }
+            return true;
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                positions[members[i]] = -1;
+            }
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package model;
+
+// A Board that keeps per-unit digit counts and occupancy masks up to date on every setCell, so
+// placement checks, candidates, conflict counts and the "full" check need no scanning.
+// Masks use bit (value - 1) for digit value, like the bitmask engine.
+// Final because the constructors fill cells through setCell, which a subclass could otherwise override.
+public final class ConstraintBoard extends Board {
+    private final Topology topology;
+    private final int allDigits;
+    // counts[unit * (size + 1) + value]: how often value occurs in the unit.
+    private final int[] counts;
+    private final int[] unitUsed;
+    private int conflictCount;
+    private int filledCount;
+
+    public ConstraintBoard(int size) {
+        super(size);
+        this.topology = getTopology();
+        this.allDigits = (1 << size) - 1;
+        this.counts = new int[topology.unitCount() * (size + 1)];
+        this.unitUsed = new int[topology.unitCount()];
+    }
+
+    public ConstraintBoard(int[][] grid) {
+        this(grid.length);
+        for (int row = 0; row < grid.length; row++) {
+            for (int col = 0; col < grid.length; col++) {
+                setCell(row, col, grid[row][col]);
+            }
+        }
+    }
+
+    public ConstraintBoard(BoardView board) {
+        this(board.getSize());
+        for (int cell = 0; cell < getTopology().cellCount(); cell++) {
+            setCell(cell / getSize(), cell % getSize(), board.getCell(cell));
+        }
+    }
+
+    @Override
+    public void setCell(int row, int col, int value) {
+        int old = getCell(row, col);
+        if (old == value) {
+            return;
+        }
+        if (value < 0 || value > getSize()) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+        int cell = topology.cell(row, col);
+        if (old != 0) {
+            remove(cell, old);
+            filledCount--;
+        }
+        if (value != 0) {
+            add(cell, value);
+            filledCount++;
+        }
+        super.setCell(row, col, value);
+    }
+
+    // Digits held by the cell's row, column and box, the cell's own value included.
+    public int usedDigits(int row, int col) {
+        int cell = topology.cell(row, col);
+        return unitUsed[topology.rowUnit(cell)] | unitUsed[topology.colUnit(cell)] | unitUsed[topology.boxUnit(cell)];
+    }
+
+    // Whether no peer of the cell holds value; the cell's own current value is ignored.
+    public boolean canPlace(int row, int col, int value) {
+        if (value < 1 || value > getSize()) {
+            return false;
+        }
+        if (getCell(row, col) != value) {
+            return (usedDigits(row, col) & 1 << (value - 1)) == 0;
+        }
+        int cell = topology.cell(row, col);
+        return count(topology.rowUnit(cell), value) == 1
+                && count(topology.colUnit(cell), value) == 1
+                && count(topology.boxUnit(cell), value) == 1;
+    }
+
+    // Digits the cell could take given its peers, as a mask; the cell's own value is ignored.
+    public int candidatesOf(int row, int col) {
+        int candidates = ~usedDigits(row, col) & allDigits;
+        int value = getCell(row, col);
+        if (value != 0 && canPlace(row, col, value)) {
+            candidates |= 1 << (value - 1);
+        }
+        return candidates;
+    }
+
+    // Surplus placements summed over all units: a digit seen k times in a unit adds k - 1.
+    public int getConflictCount() {
+        return conflictCount;
+    }
+
+    public boolean hasConflicts() {
+        return conflictCount != 0;
+    }
+
+    public int getFilledCount() {
+        return filledCount;
+    }
+
+    private int count(int unit, int value) {
+        return counts[unit * (getSize() + 1) + value];
+    }
+
+    private void add(int cell, int value) {
+        addToUnit(topology.rowUnit(cell), value);
+        addToUnit(topology.colUnit(cell), value);
+        addToUnit(topology.boxUnit(cell), value);
+    }
+
+    private void remove(int cell, int value) {
+        removeFromUnit(topology.rowUnit(cell), value);
+        removeFromUnit(topology.colUnit(cell), value);
+        removeFromUnit(topology.boxUnit(cell), value);
+    }
+
+    private void addToUnit(int unit, int value) {
+        if (counts[unit * (getSize() + 1) + value]++ == 0) {
+            unitUsed[unit] |= 1 << (value - 1);
+        } else {
+            conflictCount++;
+        }
+    }
+
+    private void removeFromUnit(int unit, int value) {
+        if (--counts[unit * (getSize() + 1) + value] == 0) {
+            unitUsed[unit] &= ~(1 << (value - 1));
+        } else {
+            conflictCount--;
+        }
+    }
+}
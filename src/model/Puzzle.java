@@ -2,10 +2,15 @@ package model;
 
 public class Puzzle {
     private final Board board;
-    private final boolean[][] fixedCells;
-    private final boolean[][] frozenCells;
+    private final CellMask fixedCells;
+    private final CellMask frozenCells;
 
     public Puzzle(Board board, boolean[][] fixedCells, boolean[][] frozenCells) {
+        this(board, CellMask.of(fixedCells), frozenCells == null ? null : CellMask.of(frozenCells));
+    }
+
+    // frozenCells may be null for modes without frozen cells.
+    public Puzzle(Board board, CellMask fixedCells, CellMask frozenCells) {
         this.board = board;
         this.fixedCells = fixedCells;
         this.frozenCells = frozenCells;
@@ -16,20 +21,38 @@ public class Puzzle {
     }
 
     public boolean isFixed(int row, int col) {
-        return fixedCells[row][col];
+        return fixedCells.get(row * board.getSize() + col);
     }
 
     public void setFixed(int row, int col, boolean fixed) {
-        fixedCells[row][col] = fixed;
+        fixedCells.set(row * board.getSize() + col, fixed);
     }
 
     public boolean isFrozen(int row, int col) {
-        return frozenCells != null && frozenCells[row][col];
+        return frozenCells != null && frozenCells.get(row * board.getSize() + col);
     }
 
     public void setFrozen(int row, int col, boolean frozen) {
         if (frozenCells != null) {
-            frozenCells[row][col] = frozen;
+            frozenCells.set(row * board.getSize() + col, frozen);
         }
     }
-}
\ No newline at end of file
+
+    public CellMask getFixedCells() {
+        return fixedCells.copy();
+    }
+
+    public CellMask getFrozenCells() {
+        return frozenCells == null ? new CellMask(fixedCells.getCellCount()) : frozenCells.copy();
+    }
+
+    // Cells the player may still fill: empty and not given, computed a word at a time.
+    public CellMask getEmptyUnfixedCells() {
+        return board.getFilledCells().or(fixedCells).not();
+    }
+
+    // Cells the player has filled in.
+    public CellMask getFilledUnfixedCells() {
+        return board.getFilledCells().andNot(fixedCells);
+    }
+}
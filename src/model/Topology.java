@@ -0,0 +1,98 @@
+package model;
+
+// Immutable row/column/box geometry of one board size, precomputed into flat tables so the
+// validator, solvers, hint engine and Ice logic never redo the division and modulo work.
+// Cells are numbered row * size + col; units are the rows, then the columns, then the boxes.
+public final class Topology {
+    private static final Topology[] CACHE = new Topology[26];
+
+    private final int size;
+    private final int subgridSize;
+    private final int cellCount;
+    private final int peerCount;
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final int[] boxOf;
+    private final int[] peers;
+    private final int[] unitCells;
+    private final int[] neighborStart;
+    private final int[] neighbors;
+
+    private Topology(int size, int subgridSize) {
+        this.size = size;
+        this.subgridSize = subgridSize;
+        this.cellCount = size * size;
+        // Row and column peers, plus the box cells outside the cell's own row and column.
+        this.peerCount = 2 * (size - 1) + (subgridSize - 1) * (subgridSize - 1);
+        rowOf = new int[cellCount];
+        colOf = new int[cellCount];
+        boxOf = new int[cellCount];
+        unitCells = new int[3 * size * size];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int row = cell / size;
+            int col = cell % size;
+            int box = (row / subgridSize) * subgridSize + col / subgridSize;
+            rowOf[cell] = row;
+            colOf[cell] = col;
+            boxOf[cell] = box;
+            unitCells[row * size + col] = cell;
+            unitCells[(size + col) * size + row] = cell;
+            unitCells[(2 * size + box) * size + (row % subgridSize) * subgridSize + col % subgridSize] = cell;
+        }
+        peers = new int[cellCount * peerCount];
+        neighborStart = new int[cellCount + 1];
+        neighbors = new int[4 * cellCount];
+        int neighborCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int row = rowOf[cell];
+            int col = colOf[cell];
+            int next = cell * peerCount;
+            for (int other = 0; other < cellCount; other++) {
+                if (other != cell && (rowOf[other] == row || colOf[other] == col || boxOf[other] == boxOf[cell])) {
+                    peers[next++] = other;
+                }
+            }
+            neighborStart[cell] = neighborCount;
+            if (row > 0) neighbors[neighborCount++] = cell - size;
+            if (row < size - 1) neighbors[neighborCount++] = cell + size;
+            if (col > 0) neighbors[neighborCount++] = cell - 1;
+            if (col < size - 1) neighbors[neighborCount++] = cell + 1;
+        }
+        neighborStart[cellCount] = neighborCount;
+    }
+
+    public static Topology of(int size) {
+        int subgridSize = Board.subgridSizeOf(size);
+        synchronized (CACHE) {
+            if (CACHE[size] == null) {
+                CACHE[size] = new Topology(size, subgridSize);
+            }
+            return CACHE[size];
+        }
+    }
+
+    public int size() { return size; }
+    public int subgridSize() { return subgridSize; }
+    public int cellCount() { return cellCount; }
+    public int unitCount() { return 3 * size; }
+    public int peerCount() { return peerCount; }
+
+    public int cell(int row, int col) { return row * size + col; }
+    public int rowOf(int cell) { return rowOf[cell]; }
+    public int colOf(int cell) { return colOf[cell]; }
+    public int boxOf(int cell) { return boxOf[cell]; }
+
+    public int rowUnit(int cell) { return rowOf[cell]; }
+    public int colUnit(int cell) { return size + colOf[cell]; }
+    public int boxUnit(int cell) { return 2 * size + boxOf[cell]; }
+
+    // The i-th cell (0..size-1) of a unit.
+    public int unitCell(int unit, int i) { return unitCells[unit * size + i]; }
+
+    // The i-th peer (0..peerCount-1): a cell sharing a row, column or box, excluding the cell itself.
+    public int peer(int cell, int i) { return peers[cell * peerCount + i]; }
+
+    // Orthogonal neighbours in top, bottom, left, right order; edge cells have fewer.
+    public int neighborCount(int cell) { return neighborStart[cell + 1] - neighborStart[cell]; }
+    public int neighbor(int cell, int i) { return neighbors[neighborStart[cell] + i]; }
+}
@@ -0,0 +1,122 @@
+package solver;
+
+import model.Board;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+public class BatchSolver {
+    // Ranges at or below this size are solved sequentially by one worker.
+    private static final int LEAF_SIZE = 4;
+
+    public enum Status {
+        SOLVED,
+        UNSOLVABLE,
+        FAILED
+    }
+
+    public static class ItemResult {
+        private final int index;
+        private final Status status;
+        private final int[][] solution;
+        private final Throwable error;
+
+        ItemResult(int index, Status status, int[][] solution, Throwable error) {
+            this.index = index;
+            this.status = status;
+            this.solution = solution;
+            this.error = error;
+        }
+
+        public int getIndex() { return index; }
+        public Status getStatus() { return status; }
+        public int[][] getSolution() { return solution; }
+        public Throwable getError() { return error; }
+        public boolean isSolved() { return status == Status.SOLVED; }
+    }
+
+    private final ForkJoinPool pool;
+    private final ThreadLocal<BitmaskEngine> engines;
+
+    public BatchSolver() {
+        this(SearchMode.PROPAGATING, ForkJoinPool.commonPool());
+    }
+
+    public BatchSolver(SearchMode searchMode, ForkJoinPool pool) {
+        this.pool = pool;
+        this.engines = ThreadLocal.withInitial(() -> new BitmaskEngine(searchMode));
+    }
+
+    public List<ItemResult> solveAll(int[][][] grids) {
+        ItemResult[] results = new ItemResult[grids.length];
+        if (grids.length > 0) {
+            pool.invoke(new SolveRange(grids, results, 0, grids.length));
+        }
+        return Arrays.asList(results);
+    }
+
+    public List<ItemResult> solveAll(List<int[][]> grids) {
+        return solveAll(grids.toArray(new int[0][][]));
+    }
+
+    public List<ItemResult> solveAll(Stream<int[][]> grids) {
+        return solveAll(grids.toArray(int[][][]::new));
+    }
+
+    private ItemResult solveOne(int index, int[][] grid) {
+        try {
+            checkShape(grid);
+            BitmaskEngine engine = engines.get();
+            if (!engine.load(grid) || !engine.solve()) {
+                return new ItemResult(index, Status.UNSOLVABLE, null, null);
+            }
+            int[][] solution = new int[grid.length][grid.length];
+            engine.copyTo(solution);
+            return new ItemResult(index, Status.SOLVED, solution, null);
+        } catch (RuntimeException e) {
+            return new ItemResult(index, Status.FAILED, null, e);
+        }
+    }
+
+    private static void checkShape(int[][] grid) {
+        if (grid == null) {
+            throw new IllegalArgumentException("Grid is null");
+        }
+        Board.subgridSizeOf(grid.length);
+        for (int[] row : grid) {
+            if (row == null || row.length != grid.length) {
+                throw new IllegalArgumentException("Grid rows must have " + grid.length + " cells");
+            }
+        }
+    }
+
+    @SuppressWarnings("serial") // ForkJoinTask is Serializable, but these tasks are never serialized
+    private class SolveRange extends RecursiveAction {
+        private final int[][][] grids;
+        private final ItemResult[] results;
+        private final int from;
+        private final int to;
+
+        SolveRange(int[][][] grids, ItemResult[] results, int from, int to) {
+            this.grids = grids;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    results[i] = solveOne(i, grids[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SolveRange(grids, results, from, middle), new SolveRange(grids, results, middle, to));
+        }
+    }
+}
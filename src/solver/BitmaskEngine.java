@@ -0,0 +1,500 @@
+package solver;
+
+import model.BoardView;
+import model.Topology;
+import utils.Constants;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BitmaskEngine {
+    private final SearchMode mode;
+    private int size;
+    private int cellCount;
+    private int allDigits;
+    private Topology topology;
+    private int[] cells;
+    private int[] firstSolution;
+    // Digits already placed in each unit, indexed like Topology units.
+    private int[] unitUsed;
+    private int[] empties;
+    private int[] trail;
+    private int emptyCount;
+    private int trailSize;
+    private int limit;
+    private int solutionCount;
+    private long nodeCount;
+    private long backtrackCount;
+    private long propagationCount;
+    private int maxDepth;
+    private long wallTimeNanos;
+    private long nodeBudget = Long.MAX_VALUE;
+    private boolean budgetExceeded;
+    private CancellationToken cancellationToken;
+    private boolean hasDeadline;
+    private long deadlineNanos;
+    private boolean timedOut;
+    private boolean cancelled;
+    private AtomicInteger sharedSolutions;
+    private int sharedLimit;
+    private AtomicReference<int[]> sharedFirstSolution;
+
+    public BitmaskEngine() {
+        this(SearchMode.ORDERED);
+    }
+
+    public BitmaskEngine(SearchMode mode) {
+        this.mode = mode;
+        resize(Constants.BOARD_SIZE);
+    }
+
+    public SearchMode getMode() {
+        return mode;
+    }
+
+    // Returns false if the givens already break a row, column or box constraint.
+    public boolean load(int[][] grid) {
+        reset(grid.length);
+        // Empty cells are queued column by column, the order the old recursive solver used.
+        for (int col = 0; col < size; col++) {
+            for (int row = 0; row < size; row++) {
+                if (!loadCell(row * size + col, grid[row][col])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Reads the board in place, without an int[][] copy.
+    public boolean load(BoardView board) {
+        reset(board.getSize());
+        for (int col = 0; col < size; col++) {
+            for (int row = 0; row < size; row++) {
+                int cell = row * size + col;
+                if (!loadCell(cell, board.getCell(cell))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    boolean load(int[] flatCells) {
+        reset((int) Math.round(Math.sqrt(flatCells.length)));
+        for (int col = 0; col < size; col++) {
+            for (int row = 0; row < size; row++) {
+                int cell = row * size + col;
+                if (!loadCell(cell, flatCells[cell])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Leaves the first solution found in the engine so it can be read back with copyTo().
+    public boolean solve() {
+        return run(1) > 0;
+    }
+
+    public int countSolutions(int limit) {
+        return limit <= 0 ? 0 : run(limit);
+    }
+
+    // Search nodes visited by the last solve() or countSolutions() call.
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    // Caps the nodes a single solve() or countSolutions() call may visit. When the cap is hit the
+    // search gives up and hitNodeBudget() reports true, so its result proves nothing.
+    public void setNodeBudget(long nodeBudget) {
+        this.nodeBudget = nodeBudget;
+    }
+
+    // Counters of the last solve() or countSolutions() call. They are plain field increments,
+    // so they are always collected.
+    public SolverStats getStats() {
+        return new SolverStats(nodeCount, backtrackCount, maxDepth, propagationCount, solutionCount, wallTimeNanos);
+    }
+
+    public boolean hitNodeBudget() {
+        return budgetExceeded;
+    }
+
+    // Stops the search once System.nanoTime() passes deadlineNanos. Checked every 256 nodes.
+    public void setDeadline(long deadlineNanos) {
+        this.hasDeadline = true;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public void clearDeadline() {
+        this.hasDeadline = false;
+    }
+
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    public boolean wasTimedOut() {
+        return timedOut;
+    }
+
+    public boolean wasCancelled() {
+        return cancelled;
+    }
+
+    public void copyTo(int[][] grid) {
+        for (int cell = 0; cell < cellCount; cell++) {
+            grid[topology.rowOf(cell)][topology.colOf(cell)] = cells[cell];
+        }
+    }
+
+    // The first solution met by the last solve() or countSolutions() call, so one counting
+    // search both proves uniqueness and yields the answer. Only meaningful if it found one.
+    public void copyFirstSolutionTo(int[][] grid) {
+        for (int cell = 0; cell < cellCount; cell++) {
+            grid[topology.rowOf(cell)][topology.colOf(cell)] = firstSolution[cell];
+        }
+    }
+
+    void copyCells(int[] flatCells) {
+        System.arraycopy(cells, 0, flatCells, 0, cellCount);
+    }
+
+    int valueAt(int cell) {
+        return cells[cell];
+    }
+
+    int candidatesOf(int cell) {
+        return candidates(cell);
+    }
+
+    // Picks the cell the search would branch on first: -1 when the grid is already full,
+    // -2 when propagation hits a contradiction. In PROPAGATING mode the singles stay applied.
+    int chooseBranchCell() {
+        if (mode == SearchMode.PROPAGATING) {
+            trailSize = 0;
+            if (!propagate()) {
+                return -2;
+            }
+            return mostConstrainedCell();
+        }
+        for (int i = 0; i < emptyCount; i++) {
+            if (cells[empties[i]] == 0) {
+                return empties[i];
+            }
+        }
+        return -1;
+    }
+
+    // Lets several engines search disjoint subtrees against one solution budget. Every engine
+    // stops once the shared count reaches the limit; the first solution found is published.
+    void shareSolutions(AtomicInteger counter, int limit, AtomicReference<int[]> firstSolution) {
+        this.sharedSolutions = counter;
+        this.sharedLimit = limit;
+        this.sharedFirstSolution = firstSolution;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    // Empties a filled cell and queues it for search, keeping all other state as it is.
+    void clearCell(int cell) {
+        unplace(cell, 1 << (cells[cell] - 1));
+        empties[emptyCount++] = cell;
+    }
+
+    // Undoes the most recent clearCell(), which must have been for this cell.
+    void restoreCell(int cell, int value) {
+        emptyCount--;
+        place(cell, 1 << (value - 1));
+    }
+
+    // Whether the grid still has a solution when the given empty cell (the last one cleared)
+    // holds anything but value. The engine is left in the state it was called in.
+    boolean hasSolutionWithout(int cell, int value) {
+        int alternatives = candidates(cell) & ~(1 << (value - 1));
+        boolean found = false;
+        emptyCount--;
+        while (alternatives != 0 && !found) {
+            int bit = alternatives & -alternatives;
+            alternatives ^= bit;
+            place(cell, bit);
+            // An exhausted budget proves nothing, so it is reported as a possible second solution.
+            found = run(1) > 0 || budgetExceeded;
+            for (int i = 0; i < emptyCount; i++) {
+                int other = empties[i];
+                if (cells[other] != 0) {
+                    unplace(other, 1 << (cells[other] - 1));
+                }
+            }
+            unplace(cell, bit);
+        }
+        emptyCount++;
+        return found;
+    }
+
+    private void reset(int boardSize) {
+        if (boardSize != size) {
+            resize(boardSize);
+        }
+        Arrays.fill(unitUsed, 0);
+        emptyCount = 0;
+    }
+
+    // Buffers are only reallocated when the engine switches to a different board size.
+    private void resize(int boardSize) {
+        topology = Topology.of(boardSize);
+        size = boardSize;
+        cellCount = topology.cellCount();
+        allDigits = (1 << boardSize) - 1;
+        cells = new int[cellCount];
+        firstSolution = new int[cellCount];
+        unitUsed = new int[topology.unitCount()];
+        empties = new int[cellCount];
+        trail = new int[cellCount];
+    }
+
+    private boolean loadCell(int cell, int value) {
+        cells[cell] = 0;
+        if (value == 0) {
+            empties[emptyCount++] = cell;
+            return true;
+        }
+        if (value < 1 || value > size) {
+            return false;
+        }
+        int bit = 1 << (value - 1);
+        if ((candidates(cell) & bit) == 0) {
+            return false;
+        }
+        place(cell, bit);
+        return true;
+    }
+
+    private int run(int limit) {
+        long start = System.nanoTime();
+        this.limit = limit;
+        solutionCount = 0;
+        nodeCount = 0;
+        backtrackCount = 0;
+        propagationCount = 0;
+        maxDepth = 0;
+        budgetExceeded = false;
+        timedOut = false;
+        cancelled = false;
+        trailSize = 0;
+        if (mode == SearchMode.PROPAGATING) {
+            searchPropagating(0);
+        } else {
+            searchOrdered(0);
+        }
+        wallTimeNanos = System.nanoTime() - start;
+        return solutionCount;
+    }
+
+    private boolean searchOrdered(int position) {
+        if (searchBudgetSpent()) {
+            return true;
+        }
+        maxDepth = Math.max(maxDepth, position);
+        if (position == emptyCount) {
+            return recordSolution();
+        }
+        int cell = empties[position];
+        int candidates = candidates(cell);
+        while (candidates != 0) {
+            int bit = candidates & -candidates;
+            candidates ^= bit;
+            place(cell, bit);
+            if (searchOrdered(position + 1)) {
+                return true;
+            }
+            unplace(cell, bit);
+            backtrackCount++;
+        }
+        return false;
+    }
+
+    private boolean searchPropagating(int depth) {
+        if (searchBudgetSpent()) {
+            return true;
+        }
+        maxDepth = Math.max(maxDepth, depth);
+        int mark = trailSize;
+        if (propagate()) {
+            int cell = mostConstrainedCell();
+            if (cell < 0) {
+                if (recordSolution()) {
+                    return true;
+                }
+            } else {
+                int candidates = candidates(cell);
+                while (candidates != 0) {
+                    int bit = candidates & -candidates;
+                    candidates ^= bit;
+                    int branchMark = trailSize;
+                    assign(cell, bit);
+                    if (searchPropagating(depth + 1)) {
+                        return true;
+                    }
+                    undoTo(branchMark);
+                    backtrackCount++;
+                }
+            }
+        }
+        undoTo(mark);
+        return false;
+    }
+
+    private boolean searchBudgetSpent() {
+        if (++nodeCount > nodeBudget) {
+            budgetExceeded = true;
+            return true;
+        }
+        // Other engines, the clock and the cancellation token are only polled every 256 nodes
+        // to keep the hot path cheap.
+        if ((nodeCount & 0xFF) != 0) {
+            return false;
+        }
+        if (sharedSolutions != null && sharedSolutions.get() >= sharedLimit) {
+            return true;
+        }
+        if (cancellationToken != null && cancellationToken.isCancelled()) {
+            cancelled = true;
+            return true;
+        }
+        if (hasDeadline && System.nanoTime() - deadlineNanos >= 0) {
+            timedOut = true;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean recordSolution() {
+        solutionCount++;
+        if (solutionCount == 1) {
+            System.arraycopy(cells, 0, firstSolution, 0, cellCount);
+        }
+        if (sharedSolutions == null) {
+            return solutionCount >= limit;
+        }
+        if (sharedFirstSolution != null && sharedFirstSolution.get() == null) {
+            sharedFirstSolution.compareAndSet(null, cells.clone());
+        }
+        return sharedSolutions.incrementAndGet() >= sharedLimit;
+    }
+
+    // Applies naked and hidden singles until neither fires. Returns false on a contradiction.
+    private boolean propagate() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int cell = 0; cell < cellCount; cell++) {
+                if (cells[cell] != 0) {
+                    continue;
+                }
+                int candidates = candidates(cell);
+                if (candidates == 0) {
+                    return false;
+                }
+                if ((candidates & (candidates - 1)) == 0) {
+                    assign(cell, candidates);
+                    propagationCount++;
+                    changed = true;
+                }
+            }
+            for (int unit = 0; unit < unitUsed.length; unit++) {
+                int once = 0;
+                int twice = 0;
+                int used = unitUsed[unit];
+                for (int i = 0; i < size; i++) {
+                    int cell = topology.unitCell(unit, i);
+                    if (cells[cell] != 0) {
+                        continue;
+                    }
+                    int candidates = candidates(cell);
+                    twice |= once & candidates;
+                    once |= candidates;
+                }
+                if ((once | used) != allDigits) {
+                    return false;
+                }
+                int hidden = once & ~twice & ~used;
+                while (hidden != 0) {
+                    int bit = hidden & -hidden;
+                    hidden ^= bit;
+                    int target = -1;
+                    for (int i = 0; i < size; i++) {
+                        int cell = topology.unitCell(unit, i);
+                        if (cells[cell] == 0 && (candidates(cell) & bit) != 0) {
+                            target = cell;
+                            break;
+                        }
+                    }
+                    // An earlier hidden single in this unit may have taken the only spot.
+                    if (target < 0) {
+                        return false;
+                    }
+                    assign(target, bit);
+                    propagationCount++;
+                    changed = true;
+                }
+            }
+        }
+        return true;
+    }
+
+    private int mostConstrainedCell() {
+        int best = -1;
+        int bestCount = size + 1;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (cells[cell] != 0) {
+                continue;
+            }
+            int count = Integer.bitCount(candidates(cell));
+            if (count < bestCount) {
+                best = cell;
+                bestCount = count;
+                if (count <= 2) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    private int candidates(int cell) {
+        return ~(unitUsed[topology.rowUnit(cell)] | unitUsed[topology.colUnit(cell)] | unitUsed[topology.boxUnit(cell)]) & allDigits;
+    }
+
+    private void assign(int cell, int bit) {
+        place(cell, bit);
+        trail[trailSize++] = cell;
+    }
+
+    private void undoTo(int mark) {
+        while (trailSize > mark) {
+            int cell = trail[--trailSize];
+            unplace(cell, 1 << (cells[cell] - 1));
+        }
+    }
+
+    private void place(int cell, int bit) {
+        cells[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+        unitUsed[topology.rowUnit(cell)] |= bit;
+        unitUsed[topology.colUnit(cell)] |= bit;
+        unitUsed[topology.boxUnit(cell)] |= bit;
+    }
+
+    private void unplace(int cell, int bit) {
+        cells[cell] = 0;
+        unitUsed[topology.rowUnit(cell)] &= ~bit;
+        unitUsed[topology.colUnit(cell)] &= ~bit;
+        unitUsed[topology.boxUnit(cell)] &= ~bit;
+    }
+}
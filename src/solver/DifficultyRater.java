@@ -0,0 +1,385 @@
+package solver;
+
+import model.BoardView;
+import model.Topology;
+
+import java.util.Arrays;
+
+// Solves a puzzle with human techniques only and reports the hardest one it needed. Every round
+// tries the techniques easiest first and applies the first that makes progress, so a harder
+// technique is only counted when nothing easier works at that point. Candidates are per-cell digit
+// masks (bit value - 1) like the bitmask engine's, and every technique is a few mask operations
+// per unit, so a 9x9 rating takes microseconds.
+// Reusable but not thread-safe: keep one per thread.
+public class DifficultyRater {
+    private Topology topology;
+    private int size;
+    private int allDigits;
+    private int[] values;
+    private int[] candidates;
+    private int[] unitUsed;
+    private int[] digitPositions;
+    private int[] subsetMembers;
+    private int emptyCount;
+    // Where the single scans resume; starting after the last hit avoids rescanning solved units.
+    private int nextSingleUnit;
+    private int nextSingleCell;
+    private boolean contradiction;
+    private Technique hardest;
+    private int effort;
+    private int steps;
+
+    public DifficultyRating rate(BoardView puzzle) {
+        load(puzzle);
+        while (emptyCount > 0 && !contradiction) {
+            Technique applied = applyEasiestTechnique();
+            if (applied == null) {
+                break;
+            }
+            effort += applied.getWeight();
+            steps++;
+            if (hardest == null || applied.compareTo(hardest) > 0) {
+                hardest = applied;
+            }
+        }
+        return new DifficultyRating(hardest, effort, steps, emptyCount == 0 && !contradiction);
+    }
+
+    private Technique applyEasiestTechnique() {
+        if (hiddenSingle()) return Technique.HIDDEN_SINGLE;
+        if (nakedSingle()) return Technique.NAKED_SINGLE;
+        if (lockedCandidates()) return Technique.LOCKED_CANDIDATES;
+        if (nakedSubset(2)) return Technique.NAKED_PAIR;
+        if (hiddenSubset(2)) return Technique.HIDDEN_PAIR;
+        if (nakedSubset(3)) return Technique.NAKED_TRIPLE;
+        if (hiddenSubset(3)) return Technique.HIDDEN_TRIPLE;
+        if (xWing()) return Technique.X_WING;
+        return null;
+    }
+
+    private void load(BoardView puzzle) {
+        if (topology != puzzle.getTopology()) {
+            topology = puzzle.getTopology();
+            size = topology.size();
+            allDigits = (1 << size) - 1;
+            values = new int[topology.cellCount()];
+            candidates = new int[topology.cellCount()];
+            unitUsed = new int[topology.unitCount()];
+            digitPositions = new int[size];
+            subsetMembers = new int[size];
+        }
+        hardest = null;
+        effort = 0;
+        steps = 0;
+        contradiction = false;
+        nextSingleUnit = 0;
+        nextSingleCell = 0;
+        emptyCount = 0;
+        Arrays.fill(unitUsed, 0);
+        for (int cell = 0; cell < topology.cellCount(); cell++) {
+            int value = puzzle.getCell(cell);
+            values[cell] = value;
+            if (value == 0) {
+                emptyCount++;
+                continue;
+            }
+            int bit = 1 << (value - 1);
+            int row = topology.rowUnit(cell);
+            int col = topology.colUnit(cell);
+            int box = topology.boxUnit(cell);
+            if (((unitUsed[row] | unitUsed[col] | unitUsed[box]) & bit) != 0) {
+                contradiction = true; // Clashing givens
+            }
+            unitUsed[row] |= bit;
+            unitUsed[col] |= bit;
+            unitUsed[box] |= bit;
+        }
+        for (int cell = 0; cell < topology.cellCount(); cell++) {
+            if (values[cell] != 0) {
+                candidates[cell] = 0;
+                continue;
+            }
+            candidates[cell] = allDigits & ~(unitUsed[topology.rowUnit(cell)] | unitUsed[topology.colUnit(cell)]
+                    | unitUsed[topology.boxUnit(cell)]);
+            contradiction |= candidates[cell] == 0;
+        }
+    }
+
+    private void place(int cell, int value) {
+        int bit = 1 << (value - 1);
+        values[cell] = value;
+        candidates[cell] = 0;
+        emptyCount--;
+        for (int i = 0; i < topology.peerCount(); i++) {
+            int peer = topology.peer(cell, i);
+            if (values[peer] == 0 && (candidates[peer] &= ~bit) == 0) {
+                contradiction = true;
+            }
+        }
+    }
+
+    private boolean eliminate(int cell, int mask) {
+        if (values[cell] != 0 || (candidates[cell] & mask) == 0) {
+            return false;
+        }
+        if ((candidates[cell] &= ~mask) == 0) {
+            contradiction = true;
+        }
+        return true;
+    }
+
+    // A digit with exactly one possible cell in some row, column or box.
+    private boolean hiddenSingle() {
+        for (int scanned = 0; scanned < topology.unitCount(); scanned++) {
+            int unit = (nextSingleUnit + scanned) % topology.unitCount();
+            int once = 0;
+            int twice = 0;
+            int placed = 0;
+            for (int i = 0; i < size; i++) {
+                int cell = topology.unitCell(unit, i);
+                if (values[cell] != 0) {
+                    placed |= 1 << (values[cell] - 1);
+                } else {
+                    twice |= once & candidates[cell];
+                    once |= candidates[cell];
+                }
+            }
+            if ((once | placed) != allDigits) {
+                contradiction = true; // Some digit has nowhere to go
+                return false;
+            }
+            int singles = once & ~twice;
+            if (singles != 0) {
+                int bit = Integer.lowestOneBit(singles);
+                for (int i = 0; i < size; i++) {
+                    int cell = topology.unitCell(unit, i);
+                    if ((candidates[cell] & bit) != 0) {
+                        place(cell, Integer.numberOfTrailingZeros(bit) + 1);
+                        nextSingleUnit = unit;
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // A cell with exactly one candidate left.
+    private boolean nakedSingle() {
+        for (int scanned = 0; scanned < topology.cellCount(); scanned++) {
+            int cell = (nextSingleCell + scanned) % topology.cellCount();
+            if (values[cell] == 0 && Integer.bitCount(candidates[cell]) == 1) {
+                place(cell, Integer.numberOfTrailingZeros(candidates[cell]) + 1);
+                nextSingleCell = cell;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Pointing: a digit confined to one line within a box leaves the rest of that line.
+    // Claiming: a digit confined to one box within a line leaves the rest of that box.
+    private boolean lockedCandidates() {
+        for (int unit = 0; unit < topology.unitCount(); unit++) {
+            boolean isBox = unit >= 2 * size;
+            for (int digit = 0; digit < size; digit++) {
+                int bit = 1 << digit;
+                int row = -1;
+                int col = -1;
+                int box = -1;
+                boolean sameRow = true;
+                boolean sameCol = true;
+                boolean sameBox = true;
+                int count = 0;
+                for (int i = 0; i < size; i++) {
+                    int cell = topology.unitCell(unit, i);
+                    if ((candidates[cell] & bit) == 0) {
+                        continue;
+                    }
+                    if (count++ == 0) {
+                        row = topology.rowUnit(cell);
+                        col = topology.colUnit(cell);
+                        box = topology.boxUnit(cell);
+                    } else {
+                        sameRow &= topology.rowUnit(cell) == row;
+                        sameCol &= topology.colUnit(cell) == col;
+                        sameBox &= topology.boxUnit(cell) == box;
+                    }
+                }
+                if (count < 2) {
+                    continue; // Singles are handled by the easier techniques
+                }
+                if (isBox) {
+                    if ((sameRow && eliminateOutside(row, unit, bit)) || (sameCol && eliminateOutside(col, unit, bit))) {
+                        return true;
+                    }
+                } else if (sameBox && eliminateOutside(box, unit, bit)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Removes the digit bits from the cells of target that are not in source.
+    private boolean eliminateOutside(int target, int source, int mask) {
+        boolean changed = false;
+        for (int i = 0; i < size; i++) {
+            int cell = topology.unitCell(target, i);
+            if (!inUnit(cell, source)) {
+                changed |= eliminate(cell, mask);
+            }
+        }
+        return changed;
+    }
+
+    private boolean inUnit(int cell, int unit) {
+        return topology.rowUnit(cell) == unit || topology.colUnit(cell) == unit || topology.boxUnit(cell) == unit;
+    }
+
+    // k cells of a unit whose candidates together are exactly k digits: those digits leave the
+    // unit's other cells.
+    private boolean nakedSubset(int k) {
+        for (int unit = 0; unit < topology.unitCount(); unit++) {
+            int memberCount = 0;
+            for (int i = 0; i < size; i++) {
+                int cell = topology.unitCell(unit, i);
+                int count = Integer.bitCount(candidates[cell]);
+                if (values[cell] == 0 && count >= 2 && count <= k) {
+                    subsetMembers[memberCount++] = i;
+                }
+            }
+            if (memberCount >= k && nakedSubset(unit, k, 0, memberCount, 0, 0, 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean nakedSubset(int unit, int k, int start, int memberCount, int chosen, int digits, int positions) {
+        if (chosen == k) {
+            if (Integer.bitCount(digits) != k) {
+                return false;
+            }
+            boolean changed = false;
+            for (int i = 0; i < size; i++) {
+                if ((positions & 1 << i) == 0) {
+                    changed |= eliminate(topology.unitCell(unit, i), digits);
+                }
+            }
+            return changed;
+        }
+        for (int m = start; m < memberCount; m++) {
+            int i = subsetMembers[m];
+            int union = digits | candidates[topology.unitCell(unit, i)];
+            if (Integer.bitCount(union) <= k && nakedSubset(unit, k, m + 1, memberCount, chosen + 1, union, positions | 1 << i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // k digits that fit in only the same k cells of a unit: those cells drop every other digit.
+    private boolean hiddenSubset(int k) {
+        for (int unit = 0; unit < topology.unitCount(); unit++) {
+            for (int digit = 0; digit < size; digit++) {
+                digitPositions[digit] = 0;
+            }
+            for (int i = 0; i < size; i++) {
+                int mask = candidates[topology.unitCell(unit, i)];
+                while (mask != 0) {
+                    int digit = Integer.numberOfTrailingZeros(mask);
+                    digitPositions[digit] |= 1 << i;
+                    mask &= mask - 1;
+                }
+            }
+            int memberCount = 0;
+            for (int digit = 0; digit < size; digit++) {
+                int count = Integer.bitCount(digitPositions[digit]);
+                if (count >= 2 && count <= k) {
+                    subsetMembers[memberCount++] = digit;
+                }
+            }
+            if (memberCount >= k && hiddenSubset(unit, k, 0, memberCount, 0, 0, 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hiddenSubset(int unit, int k, int start, int memberCount, int chosen, int digits, int positions) {
+        if (chosen == k) {
+            if (Integer.bitCount(positions) != k) {
+                return false;
+            }
+            boolean changed = false;
+            for (int i = 0; i < size; i++) {
+                if ((positions & 1 << i) != 0) {
+                    changed |= eliminate(topology.unitCell(unit, i), ~digits & allDigits);
+                }
+            }
+            return changed;
+        }
+        for (int m = start; m < memberCount; m++) {
+            int digit = subsetMembers[m];
+            int union = positions | digitPositions[digit];
+            if (Integer.bitCount(union) <= k && hiddenSubset(unit, k, m + 1, memberCount, chosen + 1, digits | 1 << digit, union)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // A digit confined to the same two columns in two rows leaves those columns elsewhere, and
+    // the same with rows and columns swapped.
+    private boolean xWing() {
+        for (int digit = 0; digit < size; digit++) {
+            int bit = 1 << digit;
+            if (xWing(bit, true) || xWing(bit, false)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean xWing(int bit, boolean byRow) {
+        // digitPositions[line]: cross positions where the digit can go in that line
+        for (int line = 0; line < size; line++) {
+            int positions = 0;
+            for (int i = 0; i < size; i++) {
+                if ((candidates[lineCell(byRow, line, i)] & bit) != 0) {
+                    positions |= 1 << i;
+                }
+            }
+            digitPositions[line] = positions;
+        }
+        for (int first = 0; first < size; first++) {
+            int positions = digitPositions[first];
+            if (Integer.bitCount(positions) != 2) {
+                continue;
+            }
+            for (int second = first + 1; second < size; second++) {
+                if (digitPositions[second] != positions) {
+                    continue;
+                }
+                boolean changed = false;
+                for (int line = 0; line < size; line++) {
+                    if (line == first || line == second) {
+                        continue;
+                    }
+                    for (int mask = positions; mask != 0; mask &= mask - 1) {
+                        changed |= eliminate(lineCell(byRow, line, Integer.numberOfTrailingZeros(mask)), bit);
+                    }
+                }
+                if (changed) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int lineCell(boolean byRow, int line, int i) {
+        return byRow ? topology.cell(line, i) : topology.cell(i, line);
+    }
+}
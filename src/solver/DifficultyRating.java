@@ -0,0 +1,51 @@
+package solver;
+
+import utils.DifficultyLevel;
+
+public class DifficultyRating {
+    private final Technique hardestTechnique;
+    private final int effort;
+    private final int steps;
+    private final boolean solved;
+
+    public DifficultyRating(Technique hardestTechnique, int effort, int steps, boolean solved) {
+        this.hardestTechnique = hardestTechnique;
+        this.effort = effort;
+        this.steps = steps;
+        this.solved = solved;
+    }
+
+    // Null when the puzzle needed no step at all.
+    public Technique getHardestTechnique() { return hardestTechnique; }
+    // Sum of the weights of every technique application.
+    public int getEffort() { return effort; }
+    public int getSteps() { return steps; }
+    // False when the techniques ran out before the grid was full, i.e. the puzzle needs guessing.
+    public boolean isSolved() { return solved; }
+
+    // The level a player would experience, from the hardest technique needed. The clue count and
+    // effort do not move a puzzle between levels; effort only orders puzzles within one level.
+    // EXPERT needs guessing, hidden pairs or beyond; HARD needs locked candidates or naked pairs;
+    // MEDIUM needs naked singles; EASY needs hidden singles only.
+    public DifficultyLevel getLevel() {
+        if (!solved || isAtLeast(Technique.HIDDEN_PAIR)) {
+            return DifficultyLevel.EXPERT;
+        }
+        if (isAtLeast(Technique.LOCKED_CANDIDATES)) {
+            return DifficultyLevel.HARD;
+        }
+        if (isAtLeast(Technique.NAKED_SINGLE)) {
+            return DifficultyLevel.MEDIUM;
+        }
+        return DifficultyLevel.EASY;
+    }
+
+    private boolean isAtLeast(Technique technique) {
+        return hardestTechnique != null && hardestTechnique.compareTo(technique) >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hardest=%s effort=%d steps=%d solved=%b", hardestTechnique, effort, steps, solved);
+    }
+}
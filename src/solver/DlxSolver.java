@@ -0,0 +1,255 @@
+package solver;
+
+import model.Topology;
+import utils.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Algorithm X over the Sudoku exact-cover matrix (324 columns for a 9x9 board). The matrix is
+// built once per instance and every solve covers/uncovers it back to its original state, so an
+// instance is reusable without allocating but must not be shared between threads.
+public class DlxSolver {
+    private static final int ROOT = 0;
+
+    private final int size;
+    private final Topology topology;
+    private final int cellCount;
+    private final int rowCount;
+    private final int columnCount;
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] rowOf;
+    private final int[] columnSize;
+    private final boolean[] covered;
+    private final int[] firstNode;
+    private final int[] givenRows;
+    private final int[] chosenRows;
+    private int givenCount;
+    private int solutionCount;
+    private int limit;
+    private List<int[][]> collected;
+
+    public DlxSolver() {
+        this(Constants.BOARD_SIZE);
+    }
+
+    public DlxSolver(int size) {
+        this.size = size;
+        this.topology = Topology.of(size);
+        this.cellCount = size * size;
+        this.rowCount = cellCount * size;
+        this.columnCount = cellCount * 4;
+        columnSize = new int[columnCount + 1];
+        covered = new boolean[columnCount + 1];
+        firstNode = new int[rowCount];
+        givenRows = new int[cellCount];
+        chosenRows = new int[cellCount];
+        int nodes = columnCount + 1 + rowCount * 4;
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+        rowOf = new int[nodes];
+        buildMatrix();
+    }
+
+    public int[][] solve(int[][] grid) {
+        int[][] solvedGrid = copyOf(grid);
+        List<int[][]> solutions = findSolutions(grid, 1);
+        return solutions.isEmpty() ? solvedGrid : solutions.get(0);
+    }
+
+    public int countSolutions(int[][] grid, int limit) {
+        return run(grid, limit, null);
+    }
+
+    public List<int[][]> findSolutions(int[][] grid, int limit) {
+        List<int[][]> solutions = new ArrayList<>();
+        run(grid, limit, solutions);
+        return solutions;
+    }
+
+    private int run(int[][] grid, int limit, List<int[][]> solutions) {
+        if (limit <= 0) {
+            return 0;
+        }
+        this.limit = limit;
+        this.collected = solutions;
+        this.solutionCount = 0;
+        givenCount = 0;
+        boolean consistent = true;
+        for (int row = 0; row < size && consistent; row++) {
+            for (int col = 0; col < size; col++) {
+                int value = grid[row][col];
+                if (value == 0) {
+                    continue;
+                }
+                if (value < 1 || value > size || !selectGiven((row * size + col) * size + value - 1)) {
+                    consistent = false;
+                    break;
+                }
+            }
+        }
+        if (consistent) {
+            search(0);
+        }
+        while (givenCount > 0) {
+            releaseGiven(givenRows[--givenCount]);
+        }
+        this.collected = null;
+        return solutionCount;
+    }
+
+    private boolean search(int depth) {
+        if (right[ROOT] == ROOT) {
+            solutionCount++;
+            if (collected != null) {
+                collected.add(toGrid(depth));
+            }
+            return solutionCount >= limit;
+        }
+        int best = right[ROOT];
+        for (int c = right[best]; c != ROOT; c = right[c]) {
+            if (columnSize[c] < columnSize[best]) {
+                best = c;
+            }
+        }
+        if (columnSize[best] == 0) {
+            return false;
+        }
+        cover(best);
+        boolean done = false;
+        for (int r = down[best]; r != best && !done; r = down[r]) {
+            chosenRows[depth] = rowOf[r];
+            for (int j = right[r]; j != r; j = right[j]) {
+                cover(column[j]);
+            }
+            done = search(depth + 1);
+            for (int j = left[r]; j != r; j = left[j]) {
+                uncover(column[j]);
+            }
+        }
+        uncover(best);
+        return done;
+    }
+
+    private boolean selectGiven(int row) {
+        int node = firstNode[row];
+        int j = node;
+        do {
+            if (covered[column[j]]) {
+                return false;
+            }
+            j = right[j];
+        } while (j != node);
+        cover(column[node]);
+        for (j = right[node]; j != node; j = right[j]) {
+            cover(column[j]);
+        }
+        givenRows[givenCount++] = row;
+        return true;
+    }
+
+    private void releaseGiven(int row) {
+        int node = firstNode[row];
+        for (int j = left[node]; j != node; j = left[j]) {
+            uncover(column[j]);
+        }
+        uncover(column[node]);
+    }
+
+    private void cover(int c) {
+        covered[c] = true;
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                up[down[j]] = up[j];
+                down[up[j]] = down[j];
+                columnSize[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                columnSize[column[j]]++;
+                up[down[j]] = j;
+                down[up[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+        covered[c] = false;
+    }
+
+    private int[][] toGrid(int depth) {
+        int[][] grid = new int[size][size];
+        for (int i = 0; i < givenCount; i++) {
+            writeRow(grid, givenRows[i]);
+        }
+        for (int i = 0; i < depth; i++) {
+            writeRow(grid, chosenRows[i]);
+        }
+        return grid;
+    }
+
+    private void writeRow(int[][] grid, int row) {
+        int cell = row / size;
+        grid[cell / size][cell % size] = row % size + 1;
+    }
+
+    private void buildMatrix() {
+        for (int c = 0; c <= columnCount; c++) {
+            left[c] = c == 0 ? columnCount : c - 1;
+            right[c] = c == columnCount ? 0 : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+        int node = columnCount + 1;
+        for (int row = 0; row < rowCount; row++) {
+            int cell = row / size;
+            int digit = row % size;
+            int r = topology.rowOf(cell);
+            int c = topology.colOf(cell);
+            int box = topology.boxOf(cell);
+            // Column headers are 1-based: cell, row-digit, column-digit and box-digit constraints.
+            int[] constraints = {
+                1 + cell,
+                1 + cellCount + r * size + digit,
+                1 + 2 * cellCount + c * size + digit,
+                1 + 3 * cellCount + box * size + digit
+            };
+            firstNode[row] = node;
+            for (int k = 0; k < constraints.length; k++) {
+                int header = constraints[k];
+                int current = node + k;
+                column[current] = header;
+                rowOf[current] = row;
+                up[current] = up[header];
+                down[current] = header;
+                down[up[header]] = current;
+                up[header] = current;
+                columnSize[header]++;
+                left[current] = k == 0 ? node + constraints.length - 1 : current - 1;
+                right[current] = k == constraints.length - 1 ? node : current + 1;
+            }
+            node += constraints.length;
+        }
+    }
+
+    private int[][] copyOf(int[][] grid) {
+        int[][] copy = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = grid[i].clone();
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,115 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Splits the top levels of one search tree into fork/join tasks. All tasks count against a
+// shared solution budget, so e.g. a uniqueness check stops everywhere once two are found.
+public class ParallelSearch {
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+    private final ThreadLocal<BitmaskEngine> engines;
+
+    public ParallelSearch() {
+        this(SearchMode.PROPAGATING, ForkJoinPool.commonPool(), 3);
+    }
+
+    public ParallelSearch(SearchMode searchMode, ForkJoinPool pool, int splitDepth) {
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+        this.engines = ThreadLocal.withInitial(() -> new BitmaskEngine(searchMode));
+    }
+
+    public int countSolutions(int[][] grid, int limit) {
+        if (limit <= 0) {
+            return 0;
+        }
+        AtomicInteger solutions = new AtomicInteger();
+        pool.invoke(new BranchTask(flatten(grid), 0, solutions, limit, null));
+        return Math.min(solutions.get(), limit);
+    }
+
+    public int[][] solve(int[][] grid) {
+        AtomicReference<int[]> firstSolution = new AtomicReference<>();
+        pool.invoke(new BranchTask(flatten(grid), 0, new AtomicInteger(), 1, firstSolution));
+        int[] solution = firstSolution.get();
+        int size = grid.length;
+        int[][] solvedGrid = new int[size][size];
+        for (int cell = 0; cell < size * size; cell++) {
+            int row = cell / size;
+            int col = cell % size;
+            solvedGrid[row][col] = solution != null ? solution[cell] : grid[row][col];
+        }
+        return solvedGrid;
+    }
+
+    private static int[] flatten(int[][] grid) {
+        int size = grid.length;
+        int[] cells = new int[size * size];
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(grid[row], 0, cells, row * size, size);
+        }
+        return cells;
+    }
+
+    @SuppressWarnings("serial") // ForkJoinTask is Serializable, but these tasks are never serialized
+    private class BranchTask extends RecursiveAction {
+        private final int[] cells;
+        private final int depth;
+        private final AtomicInteger solutions;
+        private final int limit;
+        private final AtomicReference<int[]> firstSolution;
+
+        BranchTask(int[] cells, int depth, AtomicInteger solutions, int limit, AtomicReference<int[]> firstSolution) {
+            this.cells = cells;
+            this.depth = depth;
+            this.solutions = solutions;
+            this.limit = limit;
+            this.firstSolution = firstSolution;
+        }
+
+        @Override
+        protected void compute() {
+            if (solutions.get() >= limit) {
+                return;
+            }
+            BitmaskEngine engine = engines.get();
+            if (!engine.load(cells)) {
+                return;
+            }
+            if (depth < splitDepth) {
+                int cell = engine.chooseBranchCell();
+                if (cell == -2) {
+                    return;
+                }
+                int candidates = cell >= 0 ? engine.candidatesOf(cell) : 0;
+                if (Integer.bitCount(candidates) > 1) {
+                    int[] base = new int[cells.length];
+                    engine.copyCells(base);
+                    List<BranchTask> branches = new ArrayList<>(Integer.bitCount(candidates));
+                    while (candidates != 0) {
+                        int bit = candidates & -candidates;
+                        candidates ^= bit;
+                        int[] branch = base.clone();
+                        branch[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+                        branches.add(new BranchTask(branch, depth + 1, solutions, limit, firstSolution));
+                    }
+                    invokeAll(branches);
+                    return;
+                }
+            }
+            // Small or forced subtrees are searched sequentially on this worker.
+            engine.shareSolutions(solutions, limit, firstSolution);
+            try {
+                engine.load(cells);
+                engine.countSolutions(limit);
+            } finally {
+                engine.shareSolutions(null, 0, null);
+            }
+        }
+    }
+}
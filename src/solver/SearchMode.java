@@ -0,0 +1,8 @@
+package solver;
+
+public enum SearchMode {
+    // Fixed column-major cell order with no inference, matching the original solver.
+    ORDERED,
+    // Naked and hidden singles to a fixpoint at every node, then branch on the fewest candidates.
+    PROPAGATING
+}
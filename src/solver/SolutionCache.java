@@ -0,0 +1,204 @@
+package solver;
+
+import model.BoardView;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded LRU map from puzzle to solved grid. Puzzles are keyed by their cells packed into longs
+// (4 bits per cell up to 15x15, 5 bits for 16x16 and 25x25), and solutions are kept as one byte
+// per cell. Entries are spread over independently locked access-ordered segments, each evicting
+// its least recently used entries once it is over its share of the memory budget.
+public class SolutionCache {
+    public static final long DEFAULT_MEMORY_BUDGET_BYTES = 4L << 20;
+    private static final int MAX_SEGMENTS = 16;
+    // Rough per-entry cost of the map node, key object and array headers.
+    private static final int ENTRY_OVERHEAD_BYTES = 112;
+    // Overhead plus six key words and 81 solution bytes.
+    private static final int STANDARD_ENTRY_BYTES = ENTRY_OVERHEAD_BYTES + 8 * 6 + 81;
+    // Small budgets get fewer segments, so every segment can still hold a few 9x9 entries.
+    private static final int MIN_ENTRIES_PER_SEGMENT = 4;
+
+    private final Segment[] segments;
+    private final long memoryBudgetBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SolutionCache() {
+        this(DEFAULT_MEMORY_BUDGET_BYTES);
+    }
+
+    public SolutionCache(long memoryBudgetBytes) {
+        if (memoryBudgetBytes < STANDARD_ENTRY_BYTES) {
+            throw new IllegalArgumentException("Memory budget must hold at least one 9x9 entry ("
+                    + STANDARD_ENTRY_BYTES + " bytes): " + memoryBudgetBytes);
+        }
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        int segmentCount = MAX_SEGMENTS;
+        while (segmentCount > 1 && memoryBudgetBytes / segmentCount < (long) MIN_ENTRIES_PER_SEGMENT * STANDARD_ENTRY_BYTES) {
+            segmentCount >>= 1;
+        }
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(memoryBudgetBytes / segmentCount);
+        }
+    }
+
+    // Returns a fresh copy of the cached solution, or null on a miss.
+    public int[][] get(BoardView puzzle) {
+        Key key = Key.of(puzzle);
+        byte[] solution = key == null ? null : segmentFor(key).get(key);
+        if (solution == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        int size = puzzle.getSize();
+        int[][] grid = new int[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                grid[row][col] = solution[row * size + col];
+            }
+        }
+        return grid;
+    }
+
+    public void put(BoardView puzzle, int[][] solution) {
+        Key key = Key.of(puzzle);
+        if (key == null) {
+            return;
+        }
+        int size = solution.length;
+        byte[] cells = new byte[size * size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                cells[row * size + col] = (byte) solution[row][col];
+            }
+        }
+        segmentFor(key).put(key, cells);
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public long getHitCount() { return hits.sum(); }
+    public long getMissCount() { return misses.sum(); }
+    public long getEvictionCount() { return evictions.sum(); }
+    public long getMemoryBudgetBytes() { return memoryBudgetBytes; }
+
+    public double getHitRate() {
+        long total = getHitCount() + getMissCount();
+        return total == 0 ? 0 : (double) getHitCount() / total;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long getEstimatedBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.bytes();
+        }
+        return bytes;
+    }
+
+    private Segment segmentFor(Key key) {
+        return segments[(key.hash ^ key.hash >>> 16) & (segments.length - 1)];
+    }
+
+    private static long entryBytes(Key key, byte[] solution) {
+        return ENTRY_OVERHEAD_BYTES + 8L * key.words.length + solution.length;
+    }
+
+    private final class Segment {
+        private final long budgetBytes;
+        private final LinkedHashMap<Key, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long bytes;
+
+        Segment(long budgetBytes) {
+            this.budgetBytes = budgetBytes;
+        }
+
+        synchronized byte[] get(Key key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(Key key, byte[] solution) {
+            byte[] previous = entries.put(key, solution);
+            if (previous != null) {
+                bytes -= entryBytes(key, previous);
+            }
+            bytes += entryBytes(key, solution);
+            Iterator<Map.Entry<Key, byte[]>> eldest = entries.entrySet().iterator();
+            while (bytes > budgetBytes && eldest.hasNext()) {
+                Map.Entry<Key, byte[]> entry = eldest.next();
+                bytes -= entryBytes(entry.getKey(), entry.getValue());
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+
+        synchronized void clear() {
+            entries.clear();
+            bytes = 0;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+    }
+
+    private static final class Key {
+        private final int size;
+        private final long[] words;
+        private final int hash;
+
+        // Null when the board holds values outside 0..size, which would not pack.
+        static Key of(BoardView board) {
+            int size = board.getSize();
+            int bits = size < 16 ? 4 : 5;
+            int perWord = Long.SIZE / bits;
+            long[] words = new long[(size * size + perWord - 1) / perWord];
+            for (int cell = 0; cell < size * size; cell++) {
+                int value = board.getCell(cell);
+                if (value < 0 || value > size) {
+                    return null;
+                }
+                words[cell / perWord] |= (long) value << (cell % perWord * bits);
+            }
+            return new Key(size, words);
+        }
+
+        private Key(int size, long[] words) {
+            this.size = size;
+            this.words = words;
+            hash = 31 * size + Arrays.hashCode(words);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && size == key.size && Arrays.equals(words, key.words);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
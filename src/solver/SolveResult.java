@@ -0,0 +1,18 @@
+package solver;
+
+public class SolveResult {
+    private final int[][] grid;
+    private final SolveStatus status;
+    private final SolverStats stats;
+
+    public SolveResult(int[][] grid, SolveStatus status, SolverStats stats) {
+        this.grid = grid;
+        this.status = status;
+        this.stats = stats;
+    }
+
+    public int[][] getGrid() { return grid; }
+    public SolveStatus getStatus() { return status; }
+    public boolean isSolved() { return status == SolveStatus.SOLVED; }
+    public SolverStats getStats() { return stats; }
+}
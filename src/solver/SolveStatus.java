@@ -0,0 +1,8 @@
+package solver;
+
+public enum SolveStatus {
+    SOLVED,
+    UNSOLVABLE,
+    TIMED_OUT,
+    CANCELLED
+}
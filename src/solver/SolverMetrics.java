@@ -0,0 +1,75 @@
+package solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Thread-safe aggregate of many SolverStats, bucketed by powers of two for dashboards.
+public class SolverMetrics {
+    private final Histogram nodes = new Histogram();
+    private final Histogram backtracks = new Histogram();
+    private final Histogram maxDepth = new Histogram();
+    private final Histogram propagations = new Histogram();
+    private final Histogram wallTimeMicros = new Histogram();
+
+    public void record(SolverStats stats) {
+        nodes.record(stats.getNodes());
+        backtracks.record(stats.getBacktracks());
+        maxDepth.record(stats.getMaxDepth());
+        propagations.record(stats.getPropagations());
+        wallTimeMicros.record(stats.getWallTimeNanos() / 1_000);
+    }
+
+    public Histogram getNodes() { return nodes; }
+    public Histogram getBacktracks() { return backtracks; }
+    public Histogram getMaxDepth() { return maxDepth; }
+    public Histogram getPropagations() { return propagations; }
+    public Histogram getWallTimeMicros() { return wallTimeMicros; }
+
+    public static class Histogram {
+        // Bucket i counts values in [2^(i-1), 2^i); bucket 0 counts zeros.
+        private final AtomicLongArray buckets = new AtomicLongArray(65);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+
+        public void record(long value) {
+            long clamped = Math.max(0, value);
+            buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(clamped));
+            count.increment();
+            sum.add(clamped);
+        }
+
+        public long getCount() { return count.sum(); }
+        public long getSum() { return sum.sum(); }
+
+        public double getMean() {
+            long n = getCount();
+            return n == 0 ? 0 : (double) getSum() / n;
+        }
+
+        public long[] getBucketCounts() {
+            long[] counts = new long[buckets.length()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+            }
+            return counts;
+        }
+
+        // Upper bound of the bucket holding the given percentile (0-100).
+        public long getPercentileUpperBound(double percentile) {
+            long[] counts = getBucketCounts();
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            long target = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target && counts[i] > 0) {
+                    return i == 0 ? 0 : (i >= 63 ? Long.MAX_VALUE : (1L << i) - 1);
+                }
+            }
+            return 0;
+        }
+    }
+}
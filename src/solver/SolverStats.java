@@ -0,0 +1,40 @@
+package solver;
+
+public class SolverStats {
+    public static final SolverStats EMPTY = new SolverStats(0, 0, 0, 0, 0, 0);
+
+    private final long nodes;
+    private final long backtracks;
+    private final int maxDepth;
+    private final long propagations;
+    private final int solutions;
+    private final long wallTimeNanos;
+
+    public SolverStats(long nodes, long backtracks, int maxDepth, long propagations, int solutions, long wallTimeNanos) {
+        this.nodes = nodes;
+        this.backtracks = backtracks;
+        this.maxDepth = maxDepth;
+        this.propagations = propagations;
+        this.solutions = solutions;
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    public long getNodes() { return nodes; }
+    public long getBacktracks() { return backtracks; }
+    public int getMaxDepth() { return maxDepth; }
+    public long getPropagations() { return propagations; }
+    public int getSolutions() { return solutions; }
+    public long getWallTimeNanos() { return wallTimeNanos; }
+
+    // Sums two runs, e.g. all uniqueness checks made while generating one puzzle.
+    public SolverStats plus(SolverStats other) {
+        return new SolverStats(nodes + other.nodes, backtracks + other.backtracks, Math.max(maxDepth, other.maxDepth),
+                propagations + other.propagations, solutions + other.solutions, wallTimeNanos + other.wallTimeNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("nodes=%d backtracks=%d maxDepth=%d propagations=%d solutions=%d time=%.3fms",
+                nodes, backtracks, maxDepth, propagations, solutions, wallTimeNanos / 1_000_000.0);
+    }
+}
@@ -1,49 +1,135 @@
 package solver;
 
+import model.Board;
+import model.BoardView;
+import model.PersistentBoard;
 import utils.Constants;
 import validator.SudokuValidator;
-import model.Board;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 public class SudokuSolver {
-    private final SudokuValidator validator;
+    private final SearchMode searchMode;
+    private final SolverMetrics metrics;
+    private final SolutionCache cache;
 
     public SudokuSolver(SudokuValidator validator) {
-        this.validator = validator;
+        this(validator, SearchMode.ORDERED);
+    }
+
+    public SudokuSolver(SudokuValidator validator, SearchMode searchMode) {
+        this(validator, searchMode, null);
+    }
+
+    // When metrics is non-null every solve is also recorded into its histograms.
+    public SudokuSolver(SudokuValidator validator, SearchMode searchMode, SolverMetrics metrics) {
+        this(validator, searchMode, metrics, null);
+    }
+
+    // When cache is non-null solved grids are looked up there first and stored after a search.
+    // The bitmask engine checks placements itself; validator is only kept for API compatibility.
+    public SudokuSolver(SudokuValidator validator, SearchMode searchMode, SolverMetrics metrics, SolutionCache cache) {
+        this.searchMode = searchMode;
+        this.metrics = metrics;
+        this.cache = cache;
+    }
+
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+
+    public SolutionCache getCache() {
+        return cache;
     }
 
     public int[][] solve(int[][] grid, boolean isIceMode) {
-        int[][] solvedGrid = new int[Constants.BOARD_SIZE][Constants.BOARD_SIZE];
-        for (int i = 0; i < Constants.BOARD_SIZE; i++) {
-            solvedGrid[i] = grid[i].clone();
-        }
-        solveSudoku(solvedGrid, 0, 0, isIceMode);
-        return solvedGrid;
+        return solveWithStats(grid, isIceMode).getGrid();
+    }
+
+    public SolveResult solveWithStats(int[][] grid, boolean isIceMode) {
+        return solveWithin(new Board(grid), isIceMode, null, null);
+    }
+
+    // Reads the board in place; only the result grid is allocated.
+    public SolveResult solveWithStats(BoardView board, boolean isIceMode) {
+        return solveWithin(board, isIceMode, null, null);
+    }
+
+    public CompletableFuture<SolveResult> solveAsync(int[][] grid, boolean isIceMode, Duration timeout,
+                                                     CancellationToken token) {
+        return solveAsync(new Board(grid), isIceMode, timeout, token, ForkJoinPool.commonPool());
+    }
+
+    public CompletableFuture<SolveResult> solveAsync(BoardView board, boolean isIceMode, Duration timeout,
+                                                     CancellationToken token) {
+        return solveAsync(board, isIceMode, timeout, token, ForkJoinPool.commonPool());
     }
 
-    private boolean solveSudoku(int[][] grid, int row, int col, boolean isIceMode) {
-        if (row >= Constants.BOARD_SIZE) {
-            row = 0;
-            col++;
-            if (col >= Constants.BOARD_SIZE) {
-                return true;
+    // The board is copied (one byte array) before returning, so the caller may keep editing it;
+    // a PersistentBoard cannot change and is used as it is.
+    // The deadline starts now, not when the executor picks the task up. Cancelling the future
+    // also stops the search.
+    public CompletableFuture<SolveResult> solveAsync(BoardView board, boolean isIceMode, Duration timeout,
+                                                     CancellationToken token, Executor executor) {
+        BoardView snapshot = board instanceof PersistentBoard ? board : new Board(board);
+        Long deadlineNanos = timeout == null ? null : System.nanoTime() + timeout.toNanos();
+        CancellationToken searchToken = token != null ? token : new CancellationToken();
+        CompletableFuture<SolveResult> future = CompletableFuture.supplyAsync(
+                () -> solveWithin(snapshot, isIceMode, deadlineNanos, searchToken), executor);
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                searchToken.cancel();
+            }
+        });
+        return future;
+    }
+
+    private SolveResult solveWithin(BoardView board, boolean isIceMode, Long deadlineNanos, CancellationToken token) {
+        if (cache != null) {
+            int[][] cached = cache.get(board);
+            if (cached != null) {
+                return new SolveResult(cached, SolveStatus.SOLVED, SolverStats.EMPTY);
             }
         }
-        if (!isEmpty(grid, row, col)) {
-            return solveSudoku(grid, row + 1, col, isIceMode);
+        // One engine per call keeps solve() safe to share; the search itself allocates nothing.
+        // The unpruned ORDERED walk cannot finish on 16x16/25x25 boards, so those always propagate.
+        int size = board.getSize();
+        BitmaskEngine engine = new BitmaskEngine(size == Constants.BOARD_SIZE ? searchMode : SearchMode.PROPAGATING);
+        if (deadlineNanos != null) {
+            engine.setDeadline(deadlineNanos);
         }
-        for (int num = 1; num <= 9; num++) {
-            if (validator.isValid(new Board(grid), row, col, num)) {
-                grid[row][col] = num;
-                if (solveSudoku(grid, row + 1, col, isIceMode)) {
-                    return true;
+        engine.setCancellationToken(token);
+        boolean solved = engine.load(board) && engine.solve();
+        int[][] solvedGrid = new int[size][size];
+        if (solved) {
+            engine.copyTo(solvedGrid);
+            if (cache != null) {
+                cache.put(board, solvedGrid);
+            }
+        } else {
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    solvedGrid[row][col] = board.getCell(row, col);
                 }
-                grid[row][col] = 0;
             }
         }
-        return false;
-    }
-
-    private boolean isEmpty(int[][] grid, int row, int col) {
-        return grid[row][col] == 0;
+        SolveStatus status;
+        if (solved) {
+            status = SolveStatus.SOLVED;
+        } else if (engine.wasCancelled()) {
+            status = SolveStatus.CANCELLED;
+        } else if (engine.wasTimedOut()) {
+            status = SolveStatus.TIMED_OUT;
+        } else {
+            status = SolveStatus.UNSOLVABLE;
+        }
+        SolverStats stats = engine.getStats();
+        if (metrics != null) {
+            metrics.record(stats);
+        }
+        return new SolveResult(solvedGrid, status, stats);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package solver;
+
+// Human solving techniques in the order a player would normally try them, easiest first.
+// The weight is what one application adds to a puzzle's effort score.
+public enum Technique {
+    HIDDEN_SINGLE(1),
+    NAKED_SINGLE(2),
+    LOCKED_CANDIDATES(4),
+    NAKED_PAIR(6),
+    HIDDEN_PAIR(7),
+    NAKED_TRIPLE(8),
+    HIDDEN_TRIPLE(9),
+    X_WING(10);
+
+    private final int weight;
+
+    Technique(int weight) {
+        this.weight = weight;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,61 @@
+package solver;
+
+import model.BoardView;
+
+// Tracks a puzzle that is being thinned out clue by clue from a complete grid. The engine keeps
+// its masks between removals, and a removal only needs to show that the removed value is the
+// only one the cell can take again: any other value leading to a solution means a second one.
+public class UniquenessOracle {
+    private final BitmaskEngine engine;
+    private SolverStats lastStats = SolverStats.EMPTY;
+    private int lastRemovedCell;
+    private int lastRemovedValue;
+
+    public UniquenessOracle(SearchMode searchMode) {
+        this.engine = new BitmaskEngine(searchMode);
+    }
+
+    public void setNodeBudget(long nodeBudget) {
+        engine.setNodeBudget(nodeBudget);
+    }
+
+    // Starts from a complete, valid grid. Returns false if the grid breaks a constraint.
+    public boolean begin(BoardView solution) {
+        lastStats = SolverStats.EMPTY;
+        return engine.load(solution);
+    }
+
+    // Removes the clue if the puzzle keeps a unique solution; otherwise leaves it in place.
+    public boolean tryRemove(int row, int col) {
+        int cell = row * engine.getSize() + col;
+        int value = engine.valueAt(cell);
+        if (value == 0) {
+            return false;
+        }
+        engine.clearCell(cell);
+        lastStats = SolverStats.EMPTY;
+        boolean ambiguous = false;
+        if (Integer.bitCount(engine.candidatesOf(cell)) > 1) {
+            ambiguous = engine.hasSolutionWithout(cell, value);
+            lastStats = engine.getStats();
+        }
+        if (ambiguous) {
+            engine.restoreCell(cell, value);
+            return false;
+        }
+        lastRemovedCell = cell;
+        lastRemovedValue = value;
+        return true;
+    }
+
+    // Puts back the clue taken by the last successful tryRemove(), e.g. when the puzzle turned out
+    // harder than wanted without it. Only valid straight after that removal.
+    public void undoRemove() {
+        engine.restoreCell(lastRemovedCell, lastRemovedValue);
+    }
+
+    // Counters of the search made by the last tryRemove(); empty when no search was needed.
+    public SolverStats getLastStats() {
+        return lastStats;
+    }
+}
@@ -5,6 +5,7 @@ import java.awt.Color;
 public final class Constants {
     public static final int BOARD_SIZE = 9;
     public static final int SUBGRID_SIZE = 3;
+    public static final int[] SUPPORTED_BOARD_SIZES = {9, 16, 25};
     public static final String CLASSIC_MODE = "CLASSIC";
     public static final String ICE_MODE = "ICE";
     public static final Color FROZEN_CELL_COLOR = new Color(173, 216, 230);
@@ -12,6 +13,7 @@ public final class Constants {
     public static final Color DEFAULT_CELL_COLOR = Color.WHITE;
     public static final Color ALTERNATE_CELL_COLOR = new Color(240, 240, 240);
     public static final Color ERROR_CELL_COLOR = new Color(255, 200, 200);
+    public static final Color CONFLICT_CELL_COLOR = Color.RED;
     public static final Color HINT_CELL_COLOR = new Color(0, 150, 0);
     public static final Color SOLVE_CELL_COLOR = Color.BLUE;
     public static final String[] DIFFICULTIES = {
@@ -15,4 +15,10 @@ public enum DifficultyLevel {
     public int getCellsToFill() {
         return cellsToFill;
     }
+
+    // Clue counts are tuned for 9x9; larger boards keep the same share of filled cells.
+    public int getCellsToFill(int boardSize) {
+        int standardCells = Constants.BOARD_SIZE * Constants.BOARD_SIZE;
+        return (int) Math.round((double) cellsToFill * boardSize * boardSize / standardCells);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package utils;
+
+import java.util.random.RandomGenerator;
+
+// Fisher-Yates over a caller-owned int[] so hot loops can reuse one buffer instead of boxing
+// values into a List for Collections.shuffle.
+public final class IntShuffle {
+    private IntShuffle() {} // Prevent instantiation
+
+    // Fills values[0..length) with from, from + 1, ... and shuffles that prefix.
+    public static void shuffleRange(int[] values, int length, int from, RandomGenerator random) {
+        for (int i = 0; i < length; i++) {
+            values[i] = from + i;
+        }
+        shuffle(values, length, random);
+    }
+
+    // Shuffles values[0..length) in place; entries past length are left alone.
+    public static void shuffle(int[] values, int length, RandomGenerator random) {
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+}
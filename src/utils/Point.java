@@ -1,23 +0,0 @@
-package utils;
-
-public class Point {
-    public final int x, y;
-
-    public Point(int x, int y) {
-        this.x = x;
-        this.y = y;
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-        if (this == obj) return true;
-        if (!(obj instanceof Point)) return false;
-        Point point = (Point) obj;
-        return x == point.x && y == point.y;
-    }
-
-    @Override
-    public int hashCode() {
-        return 31 * x + y;
-    }
-}
\ No newline at end of file
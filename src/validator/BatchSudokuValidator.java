@@ -0,0 +1,105 @@
+package validator;
+
+import model.BoardView;
+import model.Topology;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Validates many boards at once with the same rule as isValidSudoku: no digit repeats in a row,
+// column or box, empty cells are allowed and values outside 0..size are invalid.
+// Boards are bit-sliced 64 to a long: plane (cell, digit) has bit i set when board i holds that
+// digit there, so one OR/AND pass over a unit's planes checks the unit on all 64 boards together.
+// Instances reuse their planes and are not thread-safe.
+public class BatchSudokuValidator {
+    public static final int LANES = Long.SIZE;
+
+    private final StandardSudokuValidator scalar = new StandardSudokuValidator();
+    private long[] planes = new long[0];
+
+    public boolean[] validateAll(List<? extends BoardView> boards) {
+        return validateAll(boards.toArray(new BoardView[0]));
+    }
+
+    public boolean[] validateAll(BoardView[] boards) {
+        boolean[] valid = new boolean[boards.length];
+        for (int from = 0; from < boards.length; from += LANES) {
+            int count = Math.min(LANES, boards.length - from);
+            if (!sameSize(boards, from, count)) {
+                // Mixed sizes cannot share planes; this chunk takes the scalar path.
+                for (int i = 0; i < count; i++) {
+                    valid[from + i] = scalar.isValidSudoku(boards[from + i]);
+                }
+                continue;
+            }
+            long validLanes = validateChunk(boards, from, count);
+            for (int i = 0; i < count; i++) {
+                valid[from + i] = (validLanes >>> i & 1L) != 0;
+            }
+        }
+        return valid;
+    }
+
+    // Scalar fallback, one single-pass isValidSudoku per board; gives the same results.
+    public boolean[] validateAllScalar(List<? extends BoardView> boards) {
+        boolean[] valid = new boolean[boards.size()];
+        for (int i = 0; i < valid.length; i++) {
+            valid[i] = scalar.isValidSudoku(boards.get(i));
+        }
+        return valid;
+    }
+
+    private static boolean sameSize(BoardView[] boards, int from, int count) {
+        for (int i = 1; i < count; i++) {
+            if (boards[from + i].getSize() != boards[from].getSize()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Returns a mask with bit i set when boards[from + i] is valid.
+    private long validateChunk(BoardView[] boards, int from, int count) {
+        Topology topology = boards[from].getTopology();
+        int size = topology.size();
+        int planeCount = topology.cellCount() * size;
+        if (planes.length < planeCount) {
+            planes = new long[planeCount];
+        } else {
+            Arrays.fill(planes, 0, planeCount, 0L);
+        }
+
+        long invalid = 0;
+        for (int lane = 0; lane < count; lane++) {
+            BoardView board = boards[from + lane];
+            long bit = 1L << lane;
+            for (int cell = 0; cell < topology.cellCount(); cell++) {
+                int value = board.getCell(cell);
+                if (value == 0) {
+                    continue;
+                }
+                if (value < 0 || value > size) {
+                    invalid |= bit;
+                } else {
+                    planes[cell * size + value - 1] |= bit;
+                }
+            }
+        }
+
+        // A lane that sees a digit twice within any unit is invalid.
+        for (int unit = 0; unit < topology.unitCount(); unit++) {
+            for (int digit = 0; digit < size; digit++) {
+                long once = 0;
+                long twice = 0;
+                for (int i = 0; i < size; i++) {
+                    long present = planes[topology.unitCell(unit, i) * size + digit];
+                    twice |= once & present;
+                    once |= present;
+                }
+                invalid |= twice;
+            }
+        }
+        long lanes = count == LANES ? -1L : (1L << count) - 1;
+        return ~invalid & lanes;
+    }
+}
@@ -1,34 +1,31 @@
 package validator;
 
 import model.Board;
-import utils.Constants;
+import model.BoardView;
+import model.ConstraintBoard;
+import model.Topology;
 
 public class StandardSudokuValidator implements SudokuValidator {
     @Override
-    public boolean isValid(Board board, int row, int col, int num) {
-        if (num < 1 || num > 9) {
+    public boolean isValid(BoardView board, int row, int col, int num) {
+        int size = board.getSize();
+        if (num < 1 || num > size) {
             return false; // Explicit range check
         }
-        // Check row
-        for (int x = 0; x < Constants.BOARD_SIZE; x++) {
-            if (board.getCell(row, x) == num) {
-                return false;
-            }
+        if (board instanceof ConstraintBoard constraints) {
+            // The occupancy masks already hold every peer, so this is a single AND.
+            return board.getCell(row, col) != num && (constraints.usedDigits(row, col) & 1 << (num - 1)) == 0;
         }
-        // Check column
-        for (int x = 0; x < Constants.BOARD_SIZE; x++) {
-            if (board.getCell(x, col) == num) {
-                return false;
-            }
+        // Check the cell itself and its row, column and subgrid peers
+        if (board.getCell(row, col) == num) {
+            return false;
         }
-        // Check 3x3 subgrid
-        int startRow = row - row % Constants.SUBGRID_SIZE;
-        int startCol = col - col % Constants.SUBGRID_SIZE;
-        for (int i = 0; i < Constants.SUBGRID_SIZE; i++) {
-            for (int j = 0; j < Constants.SUBGRID_SIZE; j++) {
-                if (board.getCell(i + startRow, j + startCol) == num) {
-                    return false;
-                }
+        Topology topology = board.getTopology();
+        int cell = topology.cell(row, col);
+        for (int i = 0; i < topology.peerCount(); i++) {
+            int peer = topology.peer(cell, i);
+            if (board.getCell(peer) == num) {
+                return false;
             }
         }
         // Note: This method checks local validity (row, column, subgrid).
@@ -37,20 +34,97 @@ public class StandardSudokuValidator implements SudokuValidator {
     }
 
     @Override
-    public boolean isValidSudoku(Board board) {
-        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
-            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
-                if (board.getCell(row, col) != 0) {
-                    int temp = board.getCell(row, col);
-                    board.setCell(row, col, 0);
-                    if (!isValid(board, row, col, temp)) {
-                        board.setCell(row, col, temp);
-                        return false;
-                    }
-                    board.setCell(row, col, temp);
-                }
+    public boolean canPlace(Board board, int row, int col, int value) {
+        if (board instanceof ConstraintBoard constraints) {
+            return constraints.canPlace(row, col, value);
+        }
+        if (value < 1 || value > board.getSize()) {
+            return false;
+        }
+        // The peer list never includes the cell itself, so nothing has to be cleared first.
+        Topology topology = board.getTopology();
+        int cell = topology.cell(row, col);
+        for (int i = 0; i < topology.peerCount(); i++) {
+            int peer = topology.peer(cell, i);
+            if (board.getCell(peer) == value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // One read-only pass with a used-digit mask per unit, so shared boards can be checked from
+    // several threads at once.
+    @Override
+    public boolean isValidSudoku(BoardView board) {
+        if (board instanceof ConstraintBoard constraints) {
+            return !constraints.hasConflicts();
+        }
+        Topology topology = board.getTopology();
+        int size = board.getSize();
+        int[] unitUsed = new int[topology.unitCount()];
+        for (int cell = 0; cell < topology.cellCount(); cell++) {
+            int value = board.getCell(cell);
+            if (value == 0) {
+                continue;
+            }
+            if (value < 0 || value > size) {
+                return false;
             }
+            int bit = 1 << (value - 1);
+            int row = topology.rowUnit(cell);
+            int col = topology.colUnit(cell);
+            int box = topology.boxUnit(cell);
+            if (((unitUsed[row] | unitUsed[col] | unitUsed[box]) & bit) != 0) {
+                return false;
+            }
+            unitUsed[row] |= bit;
+            unitUsed[col] |= bit;
+            unitUsed[box] |= bit;
         }
         return true;
     }
-}
\ No newline at end of file
+
+    // Ids of the units (numbered as in Topology: rows, then columns, then boxes) holding a
+    // repeated digit or a value outside 0..size, in ascending order. Empty when the board is valid.
+    public int[] findViolatedUnits(BoardView board) {
+        Topology topology = board.getTopology();
+        int size = board.getSize();
+        int[] unitUsed = new int[topology.unitCount()];
+        boolean[] violated = new boolean[topology.unitCount()];
+        int violatedCount = 0;
+        for (int cell = 0; cell < topology.cellCount(); cell++) {
+            int value = board.getCell(cell);
+            if (value == 0) {
+                continue;
+            }
+            int bit = value < 0 || value > size ? 0 : 1 << (value - 1);
+            int row = topology.rowUnit(cell);
+            int col = topology.colUnit(cell);
+            int box = topology.boxUnit(cell);
+            // An out-of-range value (bit 0) violates all three of its units
+            if (!violated[row] && (bit == 0 || (unitUsed[row] & bit) != 0)) {
+                violated[row] = true;
+                violatedCount++;
+            }
+            if (!violated[col] && (bit == 0 || (unitUsed[col] & bit) != 0)) {
+                violated[col] = true;
+                violatedCount++;
+            }
+            if (!violated[box] && (bit == 0 || (unitUsed[box] & bit) != 0)) {
+                violated[box] = true;
+                violatedCount++;
+            }
+            unitUsed[row] |= bit;
+            unitUsed[col] |= bit;
+            unitUsed[box] |= bit;
+        }
+        int[] units = new int[violatedCount];
+        for (int unit = 0, next = 0; unit < violated.length; unit++) {
+            if (violated[unit]) {
+                units[next++] = unit;
+            }
+        }
+        return units;
+    }
+}
@@ -1,8 +1,18 @@
 package validator;
 
 import model.Board;
+import model.BoardView;
 
 public interface SudokuValidator {
-    boolean isValid(Board board, int row, int col, int value);
-    boolean isValidSudoku(Board board);
+    boolean isValid(BoardView board, int row, int col, int value);
+    boolean isValidSudoku(BoardView board);
+
+    // Whether value may go in the cell whatever it holds now: only the cell's peers are checked.
+    default boolean canPlace(Board board, int row, int col, int value) {
+        int originalValue = board.getCell(row, col);
+        board.setCell(row, col, 0);
+        boolean valid = isValid(board, row, col, value);
+        board.setCell(row, col, originalValue);
+        return valid;
+    }
 }
\ No newline at end of file
@@ -5,11 +5,13 @@ import model.Solution;
 import utils.Constants;
 import utils.GameModeType;
 import javax.swing.*;
+import javax.swing.border.Border;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.Objects;
 
 public class GameView extends JFrame {
+    private static final String CONFLICT_BASE_BORDER = "conflictBaseBorder";
     public JTextField[][] cells;
     private JComboBox<String> difficultyBox;
     private JComboBox<GameModeType> modeBox;
@@ -182,6 +184,7 @@ public class GameView extends JFrame {
                 int left = (col % Constants.SUBGRID_SIZE == 0) ? 4 : 1;
                 int bottom = (row % Constants.SUBGRID_SIZE == Constants.SUBGRID_SIZE - 1) ? 4 : 1;
                 int right = (col % Constants.SUBGRID_SIZE == Constants.SUBGRID_SIZE - 1) ? 4 : 1;
+                cells[row][col].putClientProperty(CONFLICT_BASE_BORDER, null);
                 cells[row][col].setBorder(BorderFactory.createMatteBorder(top, left, bottom, right, Color.BLACK));
 
                 mode.renderCell(cells[row][col], row, col, puzzle, solution);
@@ -197,6 +200,20 @@ public class GameView extends JFrame {
         cells[row][col].setEditable(editable);
     }
 
+    // Outlines a cell that clashes with a peer, on top of whatever border and colours it has.
+    public void markConflict(int row, int col, boolean conflicting) {
+        JTextField cell = cells[row][col];
+        Object baseBorder = cell.getClientProperty(CONFLICT_BASE_BORDER);
+        if (conflicting && baseBorder == null) {
+            cell.putClientProperty(CONFLICT_BASE_BORDER, cell.getBorder());
+            cell.setBorder(BorderFactory.createCompoundBorder(cell.getBorder(),
+                    BorderFactory.createLineBorder(Constants.CONFLICT_CELL_COLOR, 2)));
+        } else if (!conflicting && baseBorder != null) {
+            cell.setBorder((Border) baseBorder);
+            cell.putClientProperty(CONFLICT_BASE_BORDER, null);
+        }
+    }
+
     public void highlightCell(int row, int col, boolean highlight) {
         cells[row][col].setBackground(highlight ? Color.YELLOW : getDefaultBackground(row, col));
     }
@@ -1,5 +1,9 @@
 package view;
 
+import model.Board;
+import model.BoardView;
+import model.Topology;
+
 import java.util.*;
 
 public class HintSystem {
@@ -51,6 +55,11 @@ public class HintSystem {
     public static class HintGenerator {
 
         public Hint getBestHint(int[][] puzzle, int[][] solution) {
+            return getBestHint(new Board(puzzle), new Board(solution));
+        }
+
+        // Reads the live boards directly; nothing is copied.
+        public Hint getBestHint(BoardView puzzle, BoardView solution) {
             // Try logical techniques first
             Hint hint = findNakedSingle(puzzle);
             if (hint != null) return hint;
@@ -62,10 +71,10 @@ public class HintSystem {
             return getDirectHint(puzzle, solution);
         }
 
-        private Hint findNakedSingle(int[][] puzzle) {
-            for (int row = 0; row < 9; row++) {
-                for (int col = 0; col < 9; col++) {
-                    if (puzzle[row][col] == 0) {
+        private Hint findNakedSingle(BoardView puzzle) {
+            for (int row = 0; row < puzzle.getSize(); row++) {
+                for (int col = 0; col < puzzle.getSize(); col++) {
+                    if (puzzle.getCell(row, col) == 0) {
                         List<Integer> candidates = getCandidates(puzzle, row, col);
                         if (candidates.size() == 1) {
                             int value = candidates.get(0);
@@ -77,13 +86,13 @@ public class HintSystem {
                                     "Looking at cell R%dC%d:\n" +
                                             "• Row %d already has: %s\n" +
                                             "• Column %d already has: %s\n" +
-                                            "• 3×3 box already has: %s\n" +
+                                            "• %d×%d box already has: %s\n" +
                                             "• Only %d is possible in this cell!\n\n" +
                                             "This is called a 'Naked Single' - the most basic Sudoku technique.",
                                     row + 1, col + 1,
                                     row + 1, getRowNumbers(puzzle, row),
                                     col + 1, getColumnNumbers(puzzle, col),
-                                    getBoxNumbers(puzzle, row, col),
+                                    puzzle.getSubgridSize(), puzzle.getSubgridSize(), getBoxNumbers(puzzle, row, col),
                                     value
                             );
 
@@ -96,14 +105,14 @@ public class HintSystem {
             return null;
         }
 
-        private Hint findHiddenSingle(int[][] puzzle) {
+        private Hint findHiddenSingle(BoardView puzzle) {
             // Check rows for hidden singles
-            for (int row = 0; row < 9; row++) {
-                for (int num = 1; num <= 9; num++) {
+            for (int row = 0; row < puzzle.getSize(); row++) {
+                for (int num = 1; num <= puzzle.getSize(); num++) {
                     if (!isNumberInRow(puzzle, row, num)) {
                         List<Integer> possibleCols = new ArrayList<>();
-                        for (int col = 0; col < 9; col++) {
-                            if (puzzle[row][col] == 0 && canPlace(puzzle, row, col, num)) {
+                        for (int col = 0; col < puzzle.getSize(); col++) {
+                            if (puzzle.getCell(row, col) == 0 && canPlace(puzzle, row, col, num)) {
                                 possibleCols.add(col);
                             }
                         }
@@ -131,12 +140,12 @@ public class HintSystem {
             }
 
             // Check columns for hidden singles
-            for (int col = 0; col < 9; col++) {
-                for (int num = 1; num <= 9; num++) {
+            for (int col = 0; col < puzzle.getSize(); col++) {
+                for (int num = 1; num <= puzzle.getSize(); num++) {
                     if (!isNumberInColumn(puzzle, col, num)) {
                         List<Integer> possibleRows = new ArrayList<>();
-                        for (int row = 0; row < 9; row++) {
-                            if (puzzle[row][col] == 0 && canPlace(puzzle, row, col, num)) {
+                        for (int row = 0; row < puzzle.getSize(); row++) {
+                            if (puzzle.getCell(row, col) == 0 && canPlace(puzzle, row, col, num)) {
                                 possibleRows.add(row);
                             }
                         }
@@ -166,14 +175,14 @@ public class HintSystem {
             return null;
         }
 
-        private Hint getDirectHint(int[][] puzzle, int[][] solution) {
+        private Hint getDirectHint(BoardView puzzle, BoardView solution) {
             List<int[]> emptyCells = getEmptyCells(puzzle);
             if (emptyCells.isEmpty()) return null;
 
             Random random = new Random();
             int[] cell = emptyCells.get(random.nextInt(emptyCells.size()));
             int row = cell[0], col = cell[1];
-            int value = solution[row][col];
+            int value = solution.getCell(row, col);
 
             String explanation = String.format("The answer for R%dC%d is %d", row + 1, col + 1, value);
             String detailedSteps = "This is a direct answer.\n\n" +
@@ -188,9 +197,9 @@ public class HintSystem {
         }
 
         // Helper methods
-        private List<Integer> getCandidates(int[][] puzzle, int row, int col) {
+        private List<Integer> getCandidates(BoardView puzzle, int row, int col) {
             List<Integer> candidates = new ArrayList<>();
-            for (int num = 1; num <= 9; num++) {
+            for (int num = 1; num <= puzzle.getSize(); num++) {
                 if (canPlace(puzzle, row, col, num)) {
                     candidates.add(num);
                 }
@@ -198,68 +207,60 @@ public class HintSystem {
             return candidates;
         }
 
-        private boolean canPlace(int[][] puzzle, int row, int col, int num) {
-            // Check row
-            for (int c = 0; c < 9; c++) {
-                if (puzzle[row][c] == num) return false;
-            }
+        private boolean canPlace(BoardView puzzle, int row, int col, int num) {
+            if (puzzle.getCell(row, col) == num) return false;
 
-            // Check column
-            for (int r = 0; r < 9; r++) {
-                if (puzzle[r][col] == num) return false;
-            }
-
-            // Check 3x3 box
-            int boxRow = (row / 3) * 3;
-            int boxCol = (col / 3) * 3;
-            for (int r = boxRow; r < boxRow + 3; r++) {
-                for (int c = boxCol; c < boxCol + 3; c++) {
-                    if (puzzle[r][c] == num) return false;
-                }
+            // Check row, column and box through the precomputed peer list
+            Topology topology = puzzle.getTopology();
+            int cell = topology.cell(row, col);
+            for (int i = 0; i < topology.peerCount(); i++) {
+                int peer = topology.peer(cell, i);
+                if (puzzle.getCell(peer) == num) return false;
             }
 
             return true;
         }
 
-        private String getRowNumbers(int[][] puzzle, int row) {
+        private String getRowNumbers(BoardView puzzle, int row) {
             Set<Integer> numbers = new HashSet<>();
-            for (int col = 0; col < 9; col++) {
-                if (puzzle[row][col] != 0) {
-                    numbers.add(puzzle[row][col]);
+            for (int col = 0; col < puzzle.getSize(); col++) {
+                if (puzzle.getCell(row, col) != 0) {
+                    numbers.add(puzzle.getCell(row, col));
                 }
             }
             return numbers.toString().replace("[", "").replace("]", "");
         }
 
-        private String getColumnNumbers(int[][] puzzle, int col) {
+        private String getColumnNumbers(BoardView puzzle, int col) {
             Set<Integer> numbers = new HashSet<>();
-            for (int row = 0; row < 9; row++) {
-                if (puzzle[row][col] != 0) {
-                    numbers.add(puzzle[row][col]);
+            for (int row = 0; row < puzzle.getSize(); row++) {
+                if (puzzle.getCell(row, col) != 0) {
+                    numbers.add(puzzle.getCell(row, col));
                 }
             }
             return numbers.toString().replace("[", "").replace("]", "");
         }
 
-        private String getBoxNumbers(int[][] puzzle, int row, int col) {
+        private String getBoxNumbers(BoardView puzzle, int row, int col) {
             Set<Integer> numbers = new HashSet<>();
-            int boxRow = (row / 3) * 3;
-            int boxCol = (col / 3) * 3;
-            for (int r = boxRow; r < boxRow + 3; r++) {
-                for (int c = boxCol; c < boxCol + 3; c++) {
-                    if (puzzle[r][c] != 0) {
-                        numbers.add(puzzle[r][c]);
+            int boxSize = puzzle.getSubgridSize();
+            int boxRow = (row / boxSize) * boxSize;
+            int boxCol = (col / boxSize) * boxSize;
+            for (int r = boxRow; r < boxRow + boxSize; r++) {
+                for (int c = boxCol; c < boxCol + boxSize; c++) {
+                    if (puzzle.getCell(r, c) != 0) {
+                        numbers.add(puzzle.getCell(r, c));
                     }
                 }
             }
             return numbers.toString().replace("[", "").replace("]", "");
         }
 
-        private List<int[]> getEmptyCells(int[][] puzzle) {
+        private List<int[]> getEmptyCells(BoardView puzzle) {
             List<int[]> cells = new ArrayList<>();
-            for (int row = 0; row < 9; row++) {
-                for (int col = 0; col < 9; col++) {
-                    if (puzzle[row][col] == 0) {
+            for (int row = 0; row < puzzle.getSize(); row++) {
+                for (int col = 0; col < puzzle.getSize(); col++) {
+                    if (puzzle.getCell(row, col) == 0) {
                         cells.add(new int[]{row, col});
                     }
                 }
@@ -267,16 +268,16 @@ public class HintSystem {
             return cells;
         }
 
-        private boolean isNumberInRow(int[][] puzzle, int row, int num) {
-            for (int col = 0; col < 9; col++) {
-                if (puzzle[row][col] == num) return true;
+        private boolean isNumberInRow(BoardView puzzle, int row, int num) {
+            for (int col = 0; col < puzzle.getSize(); col++) {
+                if (puzzle.getCell(row, col) == num) return true;
             }
             return false;
         }
 
-        private boolean isNumberInColumn(int[][] puzzle, int col, int num) {
-            for (int row = 0; row < 9; row++) {
-                if (puzzle[row][col] == num) return true;
+        private boolean isNumberInColumn(BoardView puzzle, int col, int num) {
+            for (int row = 0; row < puzzle.getSize(); row++) {
+                if (puzzle.getCell(row, col) == num) return true;
             }
             return false;
         }